@@ -0,0 +1,95 @@
+package com.musicapp.auth_client;
+
+import io.jsonwebtoken.security.Keys;
+
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of the library. Owns one background thread that refreshes the JWKS cache and polls the
+ * revocation feed; {@link #close()} stops it.
+ *
+ * <pre>{@code
+ * AuthClient client = AuthClient.create(AuthClientConfig.builder()
+ *         .baseUri("http://auth-service:8080")
+ *         .hmacSecret(System.getenv("JWT_SECRET"))
+ *         .serviceToken(System.getenv("REVOCATION_FEED_SERVICE_TOKEN"))
+ *         .build());
+ * Optional<VerifiedToken> token = client.verify(bearerToken);
+ * }</pre>
+ */
+public final class AuthClient implements AutoCloseable {
+
+    private final TokenVerifier verifier;
+    private final ScheduledExecutorService scheduler;
+
+    private AuthClient(TokenVerifier verifier, ScheduledExecutorService scheduler) {
+        this.verifier = verifier;
+        this.scheduler = scheduler;
+    }
+
+    public static AuthClient create(AuthClientConfig config) {
+        Key hmacKey = config.getHmacSecret() != null
+                ? Keys.hmacShaKeyFor(config.getHmacSecret().getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        if (config.getBaseUri() == null) {
+            return new AuthClient(new TokenVerifier(kid -> kid == null ? hmacKey : null, null, config.getClockSkew()), null);
+        }
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(config.getHttpTimeout()).build();
+        JwksKeySource jwks = new JwksKeySource(
+                httpClient, config.getBaseUri().resolve(".well-known/jwks.json"), config.getHttpTimeout());
+
+        boolean pollRevocations = !config.getRevocationPollInterval().isZero();
+        RevocationFeed revocations = pollRevocations
+                ? new RevocationFeed(httpClient, config.getBaseUri().resolve("api/auth/revocations"), config.getHttpTimeout(),
+                        config.getServiceToken(), config.getRevocationOverlap())
+                : null;
+
+        // Warm both caches before the first request; failures are logged and retried on schedule
+        jwks.refresh();
+        if (revocations != null) {
+            revocations.poll();
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "auth-client-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long jwksMillis = config.getJwksRefreshInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(jwks::refresh, jwksMillis, jwksMillis, TimeUnit.MILLISECONDS);
+        if (revocations != null) {
+            long pollMillis = config.getRevocationPollInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(revocations::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+
+        KeyLocator keyLocator = kid -> kid == null ? hmacKey : jwks.locate(kid);
+        return new AuthClient(new TokenVerifier(keyLocator, revocations, config.getClockSkew()), scheduler);
+    }
+
+    public TokenVerifier verifier() {
+        return verifier;
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        return verifier.verify(token);
+    }
+
+    public AuthClientFilter filter(boolean required) {
+        return new AuthClientFilter(verifier, required);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.musicapp.auth_client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings for {@link AuthClient}. Configure {@code hmacSecret} when auth-service signs with HS512 and
+ * {@code baseUri} to use its JWKS endpoint (ES256) and revocation feed; the feed also needs {@code serviceToken}.
+ */
+public final class AuthClientConfig {
+
+    private final URI baseUri;
+    private final String hmacSecret;
+    private final Duration jwksRefreshInterval;
+    private final String serviceToken;
+    private final Duration revocationPollInterval;
+    private final Duration revocationOverlap;
+    private final Duration clockSkew;
+    private final Duration httpTimeout;
+
+    private AuthClientConfig(Builder builder) {
+        this.baseUri = builder.baseUri;
+        this.hmacSecret = builder.hmacSecret;
+        this.jwksRefreshInterval = builder.jwksRefreshInterval;
+        this.serviceToken = builder.serviceToken;
+        this.revocationPollInterval = builder.revocationPollInterval;
+        this.revocationOverlap = builder.revocationOverlap;
+        this.clockSkew = builder.clockSkew;
+        this.httpTimeout = builder.httpTimeout;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    public String getHmacSecret() {
+        return hmacSecret;
+    }
+
+    public Duration getJwksRefreshInterval() {
+        return jwksRefreshInterval;
+    }
+
+    public String getServiceToken() {
+        return serviceToken;
+    }
+
+    public Duration getRevocationPollInterval() {
+        return revocationPollInterval;
+    }
+
+    public Duration getRevocationOverlap() {
+        return revocationOverlap;
+    }
+
+    public Duration getClockSkew() {
+        return clockSkew;
+    }
+
+    public Duration getHttpTimeout() {
+        return httpTimeout;
+    }
+
+    public static final class Builder {
+
+        private URI baseUri;
+        private String hmacSecret;
+        private Duration jwksRefreshInterval = Duration.ofMinutes(5);
+        private String serviceToken;
+        private Duration revocationPollInterval = Duration.ofSeconds(30);
+        private Duration revocationOverlap = Duration.ofMinutes(1);
+        private Duration clockSkew = Duration.ofSeconds(30);
+        private Duration httpTimeout = Duration.ofSeconds(5);
+
+        private Builder() {
+        }
+
+        /**
+         * Base URL of auth-service, e.g. {@code http://auth-service:8080}.
+         */
+        public Builder baseUri(String baseUri) {
+            this.baseUri = URI.create(baseUri.endsWith("/") ? baseUri : baseUri + "/");
+            return this;
+        }
+
+        /**
+         * The {@code jwt.secret} shared with auth-service, needed to verify HS512 tokens.
+         */
+        public Builder hmacSecret(String hmacSecret) {
+            this.hmacSecret = hmacSecret;
+            return this;
+        }
+
+        /**
+         * The {@code revocation.feed.service-token} configured on auth-service, sent with every revocation feed poll.
+         */
+        public Builder serviceToken(String serviceToken) {
+            this.serviceToken = serviceToken;
+            return this;
+        }
+
+        public Builder jwksRefreshInterval(Duration jwksRefreshInterval) {
+            this.jwksRefreshInterval = Objects.requireNonNull(jwksRefreshInterval);
+            return this;
+        }
+
+        /**
+         * How often to poll the revocation feed. {@link Duration#ZERO} disables polling.
+         */
+        public Builder revocationPollInterval(Duration revocationPollInterval) {
+            this.revocationPollInterval = Objects.requireNonNull(revocationPollInterval);
+            return this;
+        }
+
+        /**
+         * How far each poll reaches back before the previous cursor, so deactivations committed late are still seen.
+         */
+        public Builder revocationOverlap(Duration revocationOverlap) {
+            this.revocationOverlap = Objects.requireNonNull(revocationOverlap);
+            return this;
+        }
+
+        public Builder clockSkew(Duration clockSkew) {
+            this.clockSkew = Objects.requireNonNull(clockSkew);
+            return this;
+        }
+
+        public Builder httpTimeout(Duration httpTimeout) {
+            this.httpTimeout = Objects.requireNonNull(httpTimeout);
+            return this;
+        }
+
+        public AuthClientConfig build() {
+            if (baseUri == null && hmacSecret == null) {
+                throw new IllegalStateException("Either baseUri or hmacSecret must be configured");
+            }
+            return new AuthClientConfig(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.musicapp.auth_client;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Servlet filter that verifies the bearer token in-process and exposes the result as the
+ * {@link #TOKEN_ATTRIBUTE} request attribute. Requests with an invalid token are rejected with 401;
+ * requests without one are rejected only when the filter is {@code required}.
+ */
+public final class AuthClientFilter implements Filter {
+
+    public static final String TOKEN_ATTRIBUTE = VerifiedToken.class.getName();
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenVerifier verifier;
+    private final boolean required;
+
+    public AuthClientFilter(TokenVerifier verifier, boolean required) {
+        this.verifier = verifier;
+        this.required = required;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String header = httpRequest.getHeader("Authorization");
+
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            if (required) {
+                reject((HttpServletResponse) response, "Authentication required");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<VerifiedToken> token = verifier.verify(header.substring(BEARER_PREFIX.length()));
+        if (token.isEmpty()) {
+            reject((HttpServletResponse) response, "Invalid token");
+            return;
+        }
+
+        request.setAttribute(TOKEN_ATTRIBUTE, token.get());
+        chain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json");
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,109 @@
+package com.musicapp.auth_client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the public keys published on auth-service's {@code /.well-known/jwks.json}.
+ * The set is refreshed on a schedule by {@link AuthClient}, and on demand (at most once per
+ * {@link #MIN_REFRESH_GAP}) when a token names a key id that is not cached yet.
+ */
+final class JwksKeySource {
+
+    private static final System.Logger LOG = System.getLogger(JwksKeySource.class.getName());
+    private static final Duration MIN_REFRESH_GAP = Duration.ofSeconds(10);
+
+    private final HttpClient httpClient;
+    private final URI jwksUri;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ECParameterSpec p256;
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long lastRefreshNanos;
+
+    JwksKeySource(HttpClient httpClient, URI jwksUri, Duration timeout) {
+        this.httpClient = httpClient;
+        this.jwksUri = jwksUri;
+        this.timeout = timeout;
+        this.p256 = p256Parameters();
+        this.lastRefreshNanos = System.nanoTime() - MIN_REFRESH_GAP.toNanos();
+    }
+
+    PublicKey locate(String kid) {
+        PublicKey key = keys.get(kid);
+        if (key == null && System.nanoTime() - lastRefreshNanos >= MIN_REFRESH_GAP.toNanos()) {
+            refresh();
+            key = keys.get(kid);
+        }
+        return key;
+    }
+
+    synchronized void refresh() {
+        lastRefreshNanos = System.nanoTime();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(jwksUri).timeout(timeout).GET().build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                LOG.log(System.Logger.Level.WARNING, "JWKS fetch from {0} returned {1}", jwksUri, response.statusCode());
+                return;
+            }
+            keys = parse(response.body());
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "JWKS fetch from " + jwksUri + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    Map<String, PublicKey> parse(String body) throws IOException {
+        Map<String, PublicKey> parsed = new HashMap<>();
+        for (JsonNode jwk : objectMapper.readTree(body).path("keys")) {
+            if (!"EC".equals(jwk.path("kty").asText()) || !"P-256".equals(jwk.path("crv").asText())) {
+                continue;
+            }
+            try {
+                parsed.put(jwk.path("kid").asText(), toPublicKey(jwk));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                LOG.log(System.Logger.Level.WARNING, "Skipping invalid JWK " + jwk.path("kid").asText(), e);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+
+    private PublicKey toPublicKey(JsonNode jwk) throws GeneralSecurityException {
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        BigInteger x = new BigInteger(1, decoder.decode(jwk.path("x").asText()));
+        BigInteger y = new BigInteger(1, decoder.decode(jwk.path("y").asText()));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(new ECPoint(x, y), p256));
+    }
+
+    private static ECParameterSpec p256Parameters() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("P-256 curve is not available", e);
+        }
+    }
+}
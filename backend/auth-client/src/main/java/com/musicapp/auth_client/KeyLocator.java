@@ -0,0 +1,12 @@
+package com.musicapp.auth_client;
+
+import java.security.Key;
+
+/**
+ * Finds the verification key for a token's {@code kid} header ({@code null} for HS512 tokens).
+ */
+@FunctionalInterface
+interface KeyLocator {
+
+    Key locate(String kid);
+}
@@ -0,0 +1,91 @@
+package com.musicapp.auth_client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local copy of auth-service's {@code /api/auth/revocations} feed. Each poll pages through entries newer than
+ * the previous cursor until the feed reports no more, so steady-state polls are cheap.
+ * <p>
+ * Once caught up, the server's cursor is its current time, but a deactivation stamped just before that may
+ * commit just after the query ran. The next poll therefore starts {@code overlap} earlier; re-read entries are
+ * simply added to the set again.
+ */
+final class RevocationFeed {
+
+    static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    private static final System.Logger LOG = System.getLogger(RevocationFeed.class.getName());
+
+    private final HttpClient httpClient;
+    private final URI feedUri;
+    private final Duration timeout;
+    private final String serviceToken;
+    private final long overlapMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Set<String> revokedUserIds = ConcurrentHashMap.newKeySet();
+    private volatile long since;
+
+    RevocationFeed(HttpClient httpClient, URI feedUri, Duration timeout, String serviceToken, Duration overlap) {
+        this.httpClient = httpClient;
+        this.feedUri = feedUri;
+        this.timeout = timeout;
+        this.serviceToken = serviceToken;
+        this.overlapMillis = overlap.toMillis();
+    }
+
+    boolean isRevoked(String userId) {
+        return revokedUserIds.contains(userId);
+    }
+
+    synchronized void poll() {
+        try {
+            while (true) {
+                JsonNode body = fetch(since);
+                if (body == null) {
+                    return;
+                }
+                body.path("revokedUserIds").forEach(id -> revokedUserIds.add(id.asText()));
+                long timestamp = body.path("timestamp").asLong(since);
+                if (!body.path("hasMore").asBoolean(false)) {
+                    since = Math.max(0, timestamp - overlapMillis);
+                    return;
+                }
+                if (timestamp <= since) {
+                    // A whole page shares one timestamp; retrying the same cursor would never get past it
+                    LOG.log(System.Logger.Level.WARNING, "Revocation feed {0} did not advance past {1}", feedUri, since);
+                    return;
+                }
+                since = timestamp;
+            }
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.WARNING, "Revocation feed poll " + feedUri + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JsonNode fetch(long cursor) throws IOException, InterruptedException {
+        URI uri = URI.create(feedUri + "?since=" + cursor);
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(timeout).GET();
+        if (serviceToken != null) {
+            request.header(SERVICE_TOKEN_HEADER, serviceToken);
+        }
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            LOG.log(System.Logger.Level.WARNING, "Revocation feed {0} returned {1}", feedUri, response.statusCode());
+            return null;
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,65 @@
+package com.musicapp.auth_client;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Verifies auth-service tokens without calling auth-service. Thread-safe; share one instance per process.
+ */
+public final class TokenVerifier {
+
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_EMAIL = "email";
+
+    private final JwtParser parser;
+    private final RevocationFeed revocations;
+
+    TokenVerifier(KeyLocator keyLocator, RevocationFeed revocations, Duration clockSkew) {
+        this.revocations = revocations;
+        this.parser = Jwts.parserBuilder()
+                .setAllowedClockSkewSeconds(clockSkew.toSeconds())
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyLocator.locate(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("No verification key for kid " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return the token's claims, or empty if it is malformed, badly signed, expired or belongs to a revoked user
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        if (userId == null || (revocations != null && revocations.isRevoked(userId))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new VerifiedToken(
+                userId,
+                claims.get(CLAIM_EMAIL, String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        ));
+    }
+}
@@ -0,0 +1,9 @@
+package com.musicapp.auth_client;
+
+import java.time.Instant;
+
+/**
+ * Claims of a token that passed signature, expiry and revocation checks.
+ */
+public record VerifiedToken(String userId, String email, Instant issuedAt, Instant expiresAt) {
+}
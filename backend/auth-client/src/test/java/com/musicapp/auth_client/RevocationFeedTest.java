@@ -0,0 +1,89 @@
+package com.musicapp.auth_client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationFeedTest {
+
+    private HttpServer server;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final List<String> tokens = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void poll_ShouldPageThroughBacklogAndOverlapTheNextPoll() throws Exception {
+        // Arrange
+        startServer(
+                "{\"timestamp\":1000,\"revokedUserIds\":[\"user-1\",\"user-2\"],\"hasMore\":true}",
+                "{\"timestamp\":50000,\"revokedUserIds\":[\"user-3\"],\"hasMore\":false}",
+                "{\"timestamp\":80000,\"revokedUserIds\":[\"user-4\"],\"hasMore\":false}");
+        RevocationFeed feed = feed("s3cret");
+
+        // Act
+        feed.poll();
+        feed.poll();
+
+        // Assert
+        assertEquals(List.of("since=0", "since=1000", "since=40000"), queries);
+        assertEquals(List.of("s3cret", "s3cret", "s3cret"), tokens);
+        assertTrue(feed.isRevoked("user-1"));
+        assertTrue(feed.isRevoked("user-3"));
+        assertTrue(feed.isRevoked("user-4"));
+    }
+
+    @Test
+    void poll_WhenCursorDoesNotAdvance_ShouldStopInsteadOfLooping() throws Exception {
+        // Arrange
+        startServer("{\"timestamp\":0,\"revokedUserIds\":[\"user-1\"],\"hasMore\":true}");
+        RevocationFeed feed = feed(null);
+
+        // Act
+        feed.poll();
+
+        // Assert
+        assertEquals(List.of("since=0"), queries);
+        assertTrue(feed.isRevoked("user-1"));
+    }
+
+    private RevocationFeed feed(String serviceToken) {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/api/auth/revocations");
+        return new RevocationFeed(HttpClient.newHttpClient(), uri, Duration.ofSeconds(5), serviceToken, Duration.ofSeconds(10));
+    }
+
+    // Serves the given bodies in order, repeating the last one
+    private void startServer(String... bodies) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/auth/revocations", exchange -> {
+            queries.add(exchange.getRequestURI().getQuery());
+            String token = exchange.getRequestHeaders().getFirst(RevocationFeed.SERVICE_TOKEN_HEADER);
+            if (token != null) {
+                tokens.add(token);
+            }
+            byte[] bytes = bodies[Math.min(queries.size(), bodies.length) - 1].getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+}
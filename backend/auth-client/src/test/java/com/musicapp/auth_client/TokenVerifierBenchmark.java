@@ -0,0 +1,62 @@
+package com.musicapp.auth_client;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded verifications per second, i.e. per core. Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class TokenVerifierBenchmark {
+
+    private TokenVerifier hmacVerifier;
+    private TokenVerifier ecVerifier;
+    private String hmacToken;
+    private String ecToken;
+
+    @Setup
+    public void setUp() {
+        Key hmacKey = Keys.hmacShaKeyFor("benchmark-secret-key-long-enough-for-hs512-0123456789abcdefghijklmn"
+                .getBytes(StandardCharsets.UTF_8));
+        KeyPair ecKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+
+        hmacVerifier = new TokenVerifier(kid -> hmacKey, null, Duration.ZERO);
+        ecVerifier = new TokenVerifier(kid -> ecKey.getPublic(), null, Duration.ZERO);
+        hmacToken = TokenVerifierTest.sign("user-1", hmacKey, SignatureAlgorithm.HS512, null, 3_600_000);
+        ecToken = TokenVerifierTest.sign("user-1", ecKey.getPrivate(), SignatureAlgorithm.ES256, "k1", 3_600_000);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyHs512() {
+        return hmacVerifier.verify(hmacToken);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyEs256() {
+        return ecVerifier.verify(ecToken);
+    }
+}
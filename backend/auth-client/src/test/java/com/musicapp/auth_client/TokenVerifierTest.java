@@ -0,0 +1,139 @@
+package com.musicapp.auth_client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerifierTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    private HttpServer server;
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void verify_WithHmacToken_ShouldReturnClaims() {
+        // Arrange
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        String token = sign("user-1", key, SignatureAlgorithm.HS512, null, 60000);
+
+        try (AuthClient client = AuthClient.create(AuthClientConfig.builder().hmacSecret(SECRET).build())) {
+            // Act
+            Optional<VerifiedToken> verified = client.verify(token);
+
+            // Assert
+            assertTrue(verified.isPresent());
+            assertEquals("user-1", verified.get().userId());
+            assertEquals("user-1@example.com", verified.get().email());
+        }
+    }
+
+    @Test
+    void verify_WithTamperedOrExpiredToken_ShouldReturnEmpty() {
+        // Arrange
+        Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        String token = sign("user-1", key, SignatureAlgorithm.HS512, null, 60000);
+        String expired = sign("user-1", key, SignatureAlgorithm.HS512, null, -120000);
+
+        try (AuthClient client = AuthClient.create(AuthClientConfig.builder().hmacSecret(SECRET).build())) {
+            // Act & Assert
+            assertTrue(client.verify(token.substring(0, token.length() - 2) + "xx").isEmpty());
+            assertTrue(client.verify(expired).isEmpty());
+            assertTrue(client.verify("not-a-jwt").isEmpty());
+        }
+    }
+
+    @Test
+    void verify_WithEs256Token_ShouldUseJwksAndRevocationFeed() throws Exception {
+        // Arrange
+        KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        String jwks = "{\"keys\":[" + toJwk("k1", (ECPublicKey) keyPair.getPublic()) + "]}";
+        String revocations = "{\"timestamp\":" + System.currentTimeMillis() + ",\"revokedUserIds\":[\"user-2\"]}";
+        startServer(Map.of("/.well-known/jwks.json", jwks, "/api/auth/revocations", revocations));
+
+        String token = sign("user-1", keyPair.getPrivate(), SignatureAlgorithm.ES256, "k1", 60000);
+        String revokedToken = sign("user-2", keyPair.getPrivate(), SignatureAlgorithm.ES256, "k1", 60000);
+        String unknownKid = sign("user-1", keyPair.getPrivate(), SignatureAlgorithm.ES256, "k2", 60000);
+
+        AuthClientConfig config = AuthClientConfig.builder()
+                .baseUri("http://localhost:" + server.getAddress().getPort())
+                .revocationPollInterval(Duration.ofMinutes(10))
+                .build();
+
+        try (AuthClient client = AuthClient.create(config)) {
+            // Act & Assert
+            assertEquals("user-1", client.verify(token).map(VerifiedToken::userId).orElse(null));
+            assertTrue(client.verify(unknownKid).isEmpty());
+            assertTrue(client.verify(revokedToken).isEmpty());
+        }
+    }
+
+    private void startServer(Map<String, String> routes) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        routes.forEach((path, body) -> server.createContext(path, exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }));
+        server.start();
+    }
+
+    static String sign(String userId, Key key, SignatureAlgorithm algorithm, String kid, long ttlMillis) {
+        Date now = new Date();
+        JwtBuilder builder = Jwts.builder();
+        if (kid != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, kid);
+        }
+        return builder
+                .setClaims(Map.of("userId", userId, "email", userId + "@example.com"))
+                .setSubject(userId + "@example.com")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + ttlMillis))
+                .signWith(key, algorithm)
+                .compact();
+    }
+
+    static String toJwk(String kid, ECPublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return "{\"kty\":\"EC\",\"crv\":\"P-256\",\"kid\":\"" + kid + "\""
+                + ",\"x\":\"" + encoder.encodeToString(fixed(publicKey.getW().getAffineX())) + "\""
+                + ",\"y\":\"" + encoder.encodeToString(fixed(publicKey.getW().getAffineY())) + "\"}";
+    }
+
+    private static byte[] fixed(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] out = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, out, 32 - length, length);
+        return out;
+    }
+}
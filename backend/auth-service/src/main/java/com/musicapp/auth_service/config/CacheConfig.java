@@ -1,6 +1,7 @@
 package com.musicapp.auth_service.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -13,12 +14,36 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CacheConfig {
 
+    @Value("${cache.principals.maximum-size}")
+    private Long principalsMaximumSize;
+
+    @Value("${cache.principals.expire-after-write}")
+    private Long principalsExpireAfterWrite;
+
+    @Value("${cache.admin-user-counts.expire-after-write}")
+    private Long adminUserCountsExpireAfterWrite;
+
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager("users");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .expireAfterWrite(5, TimeUnit.MINUTES)
-                .maximumSize(1000));
+                .maximumSize(1000)
+                .recordStats());
+
+        // Read by the JWT filter on every authenticated request, so it gets its own size and TTL
+        cacheManager.registerCustomCache("principals", Caffeine.newBuilder()
+                .expireAfterWrite(principalsExpireAfterWrite, TimeUnit.MILLISECONDS)
+                .maximumSize(principalsMaximumSize)
+                .recordStats()
+                .build());
+
+        // Admin listing totals, keyed by filter; slightly stale counts are fine for a dashboard
+        cacheManager.registerCustomCache("adminUserCounts", Caffeine.newBuilder()
+                .expireAfterWrite(adminUserCountsExpireAfterWrite, TimeUnit.MILLISECONDS)
+                .maximumSize(100)
+                .recordStats()
+                .build());
         return cacheManager;
     }
 }
\ No newline at end of file
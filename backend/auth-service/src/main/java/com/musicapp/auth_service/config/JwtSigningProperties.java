@@ -0,0 +1,41 @@
+package com.musicapp.auth_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token signing setup. {@code HS512} signs with the shared {@code jwt.secret}; {@code ES256} signs with the
+ * key named by {@code activeKid} and publishes every configured public key on the JWKS endpoint, so keys can
+ * be rotated by adding the new key, switching {@code activeKid}, and removing the old key once its tokens expire.
+ */
+@Data
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtSigningProperties {
+
+    private String algorithm = "HS512";
+
+    private String activeKid;
+
+    // ES256 only: keep accepting kid-less HS512 tokens signed with jwt.secret. Enable for one access-token
+    // lifetime after switching from HS512, then turn off so the shared secret can no longer mint tokens.
+    private boolean acceptLegacyHmac = false;
+
+    // Cache lifetime advertised on /.well-known/jwks.json, in milliseconds
+    private Long jwksMaxAge = 300000L;
+
+    private List<SigningKey> keys = new ArrayList<>();
+
+    @Data
+    public static class SigningKey {
+        private String kid;
+
+        // Base64 PKCS#8 (PEM armour allowed). Only needed for the active key.
+        private String privateKey;
+
+        // Base64 X.509 SubjectPublicKeyInfo (PEM armour allowed)
+        private String publicKey;
+    }
+}
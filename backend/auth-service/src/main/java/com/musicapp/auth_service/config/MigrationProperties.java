@@ -0,0 +1,24 @@
+package com.musicapp.auth_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Schema migration runner setup. Migrations run in the background after startup, one batch at a time, so the
+ * service keeps serving while documents are reshaped.
+ */
+@Data
+@ConfigurationProperties(prefix = "migration")
+public class MigrationProperties {
+
+    private boolean enabled = true;
+
+    // Documents read and written per round trip
+    private int batchSize = 500;
+
+    // Pause between batches, in milliseconds, to leave the database headroom for live traffic
+    private long batchPause = 50;
+
+    // How long a replica owns a migration without renewing, in milliseconds; after that another may resume it
+    private long lease = 300000;
+}
@@ -0,0 +1,184 @@
+package com.musicapp.auth_service.config;
+
+import com.mongodb.MongoException;
+import com.musicapp.auth_service.model.OAuthLoginCode;
+import com.musicapp.auth_service.model.RefreshToken;
+import com.musicapp.auth_service.model.RevokedToken;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.security.MongoProxyManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates and verifies every index the service relies on. Spring Boot leaves {@code auto-index-creation} off,
+ * so the indexes declared on the entities (plus the bucket TTL index of the Mongo rate-limit backend) are
+ * ensured here once the context has started, before the runners touch the database.
+ * <p>
+ * Verification runs after creation and then every {@code mongo.indexes.verify-interval}. Unique and TTL indexes
+ * are critical: without them duplicates slip in or expired tokens are never purged, so a missing one takes the
+ * readiness probe down. Missing query indexes, indexes no query has used since the server's counters were
+ * reset, and indexes nobody declared are reported in the health details and the log.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoIndexManager implements HealthIndicator {
+
+    private static final List<Class<?>> ENTITIES = List.of(User.class, RefreshToken.class, RevokedToken.class, OAuthLoginCode.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<MongoProxyManager> mongoProxyManager;
+
+    private volatile Report report;
+
+    /**
+     * Outcome of the last verification; {@code null} lists mean Mongo could not be reached.
+     */
+    private record Report(List<String> missingCritical, List<String> missing, List<String> unused, List<String> unmanaged) {
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void ensureIndexes() {
+        try {
+            requiredIndexes().forEach((collection, indexes) -> indexes.forEach(index -> {
+                try {
+                    mongoTemplate.indexOps(collection).ensureIndex(index);
+                } catch (DataAccessResourceFailureException e) {
+                    throw e;
+                } catch (RuntimeException e) {
+                    // E.g. existing duplicates block a unique index; verification reports it as missing
+                    log.error("Could not create index {} on {}: {}", index.getIndexKeys(), collection, e.getMessage());
+                }
+            }));
+        } catch (DataAccessResourceFailureException e) {
+            log.error("Could not reach Mongo to create indexes: {}", e.getMessage());
+            report = new Report(null, null, null, null);
+            return;
+        }
+        verify();
+    }
+
+    @Scheduled(fixedDelayString = "${mongo.indexes.verify-interval}", initialDelayString = "${mongo.indexes.verify-interval}")
+    public void verify() {
+        List<String> missingCritical = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        List<String> unused = new ArrayList<>();
+        List<String> unmanaged = new ArrayList<>();
+        try {
+            requiredIndexes().forEach((collection, indexes) -> {
+                List<IndexInfo> existing = mongoTemplate.indexOps(collection).getIndexInfo();
+                for (IndexDefinition index : indexes) {
+                    if (existing.stream().noneMatch(info -> matches(info, index))) {
+                        String description = collection + " " + index.getIndexKeys().toJson();
+                        (isCritical(index) ? missingCritical : missing).add(description);
+                    }
+                }
+                for (IndexInfo info : existing) {
+                    if (!info.getName().equals("_id_") && indexes.stream().noneMatch(index -> matches(info, index))) {
+                        unmanaged.add(collection + " " + info.getName());
+                    }
+                }
+                unused.addAll(unusedIndexes(collection));
+            });
+        } catch (DataAccessResourceFailureException e) {
+            log.error("Could not reach Mongo to verify indexes: {}", e.getMessage());
+            report = new Report(null, null, null, null);
+            return;
+        }
+
+        if (!missingCritical.isEmpty()) {
+            log.error("Critical indexes missing: {}", missingCritical);
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Indexes missing, affected queries scan the collection: {}", missing);
+        }
+        if (!unmanaged.isEmpty()) {
+            log.warn("Indexes not declared by this service: {}", unmanaged);
+        }
+        if (!unused.isEmpty()) {
+            log.info("Indexes unused since the server's counters were reset: {}", unused);
+        }
+        report = new Report(missingCritical, missing, unused, unmanaged);
+    }
+
+    @Override
+    public Health health() {
+        Report current = report;
+        if (current == null || current.missingCritical() == null) {
+            return Health.down().withDetail("reason", "indexes not verified").build();
+        }
+        return (current.missingCritical().isEmpty() ? Health.up() : Health.down())
+                .withDetail("missingCritical", current.missingCritical())
+                .withDetail("missing", current.missing())
+                .withDetail("unused", current.unused())
+                .withDetail("unmanaged", current.unmanaged())
+                .build();
+    }
+
+    private Map<String, List<IndexDefinition>> requiredIndexes() {
+        Map<String, List<IndexDefinition>> indexes = new LinkedHashMap<>();
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext = mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entity : ENTITIES) {
+            String collection = mappingContext.getRequiredPersistentEntity(entity).getCollection();
+            resolver.resolveIndexFor(entity).forEach(index ->
+                    indexes.computeIfAbsent(collection, name -> new ArrayList<>()).add(index));
+        }
+        mongoProxyManager.ifAvailable(proxyManager -> indexes.put(MongoProxyManager.COLLECTION,
+                List.of(new Index("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO))));
+        return indexes;
+    }
+
+    private List<String> unusedIndexes(String collection) {
+        List<String> unused = new ArrayList<>();
+        try {
+            for (Document stats : mongoTemplate.getCollection(collection)
+                    .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                Document accesses = stats.get("accesses", Document.class);
+                if (!"_id_".equals(stats.getString("name")) && accesses.get("ops", Number.class).longValue() == 0) {
+                    unused.add(collection + " " + stats.getString("name"));
+                }
+            }
+        } catch (MongoException e) {
+            // $indexStats needs the clusterMonitor role; the report simply leaves usage out
+            log.debug("Index usage unavailable for {}: {}", collection, e.getMessage());
+        }
+        return unused;
+    }
+
+    private static boolean matches(IndexInfo info, IndexDefinition index) {
+        List<String> fields = info.getIndexFields().stream().map(IndexField::getKey).toList();
+        return fields.equals(new ArrayList<>(index.getIndexKeys().keySet()))
+                && info.isUnique() == index.getIndexOptions().getBoolean("unique", false);
+    }
+
+    private static boolean isCritical(IndexDefinition index) {
+        Document options = index.getIndexOptions();
+        return options.getBoolean("unique", false) || options.containsKey("expireAfterSeconds");
+    }
+}
@@ -0,0 +1,36 @@
+package com.musicapp.auth_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Password hashing setup. New hashes use {@code algorithm}; hashes in any other supported format, or with a
+ * lower cost than currently configured, still verify and are replaced on the user's next successful login.
+ */
+@Data
+@ConfigurationProperties(prefix = "password.hashing")
+public class PasswordHashingProperties {
+
+    // bcrypt or argon2 (Argon2id)
+    private String algorithm = "bcrypt";
+
+    // Hashing threads; 0 = one per available core
+    private int threads = 0;
+
+    // Hash requests allowed to wait for a thread before new ones are rejected with 503
+    private int queueCapacity = 64;
+
+    private Bcrypt bcrypt = new Bcrypt();
+
+    @Data
+    public static class Bcrypt {
+        // Fixed work factor; 0 = calibrate at startup against targetLatency
+        private int strength = 0;
+
+        // Calibration never goes below this, however slow the host
+        private int minStrength = 10;
+
+        // Per-hash time budget for calibration, in milliseconds
+        private long targetLatency = 250;
+    }
+}
@@ -0,0 +1,44 @@
+package com.musicapp.auth_service.config;
+
+import com.musicapp.auth_service.security.DistributedBucketStore;
+import com.musicapp.auth_service.security.LocalBucketStore;
+import com.musicapp.auth_service.security.MongoProxyManager;
+import com.musicapp.auth_service.security.RateLimitBucketStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.backend", havingValue = "local", matchIfMissing = true)
+    public RateLimitBucketStore localBucketStore(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new LocalBucketStore(properties.getMaxTrackedKeys(), Duration.ofMillis(properties.getIdleEviction()),
+                meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.backend", havingValue = "mongo")
+    public MongoProxyManager mongoProxyManager(RateLimitProperties properties, MongoTemplate mongoTemplate,
+                                               @Qualifier("applicationTaskExecutor") Executor asyncExecutor) {
+        // Async callers get the blocking driver calls run on Spring Boot's shared task pool
+        return new MongoProxyManager(mongoTemplate, Duration.ofMillis(properties.getIdleEviction()), asyncExecutor);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.backend", havingValue = "mongo")
+    public RateLimitBucketStore distributedBucketStore(RateLimitProperties properties, MongoProxyManager proxyManager,
+                                                       MeterRegistry meterRegistry) {
+        RateLimitProperties.Sync sync = properties.getSync();
+        return new DistributedBucketStore(proxyManager, sync.getMaxUnsynchronizedTokens(),
+                Duration.ofMillis(sync.getMaxUnsynchronizedTimeout()), properties.getMaxTrackedKeys(),
+                Duration.ofMillis(properties.getIdleEviction()), meterRegistry);
+    }
+}
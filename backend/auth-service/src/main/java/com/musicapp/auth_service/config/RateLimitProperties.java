@@ -0,0 +1,90 @@
+package com.musicapp.auth_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limiting setup. A policy is a token bucket (capacity refilled every {@code refillPeriod}) kept per client
+ * IP, per account named in the request body, or per authenticated user. Every route rule matching a request
+ * takes its {@code cost} from its policy's bucket, so expensive endpoints drain a budget faster than cheap ones.
+ * Requests matching no rule take one token from {@link #defaultPolicy}.
+ */
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    // Distinct bucket keys held in memory; least valuable keys are evicted beyond this
+    private long maxTrackedKeys = 100000;
+
+    // Buckets untouched this long are dropped, in milliseconds; keep it >= the longest refill period
+    private long idleEviction = 120000;
+
+    // local: per-replica buckets; mongo: shared by all replicas
+    private String backend = "local";
+
+    // What to do when the bucket backend cannot be reached
+    private FailureMode failureMode = FailureMode.OPEN;
+
+    private Sync sync = new Sync();
+
+    private String defaultPolicy = "ip";
+
+    private List<Policy> policies = new ArrayList<>();
+
+    private List<Route> routes = new ArrayList<>();
+
+    public enum FailureMode {
+        // Let the request through; limits are not enforced until the backend recovers
+        OPEN,
+        // Answer 503; nothing gets through unmetered
+        CLOSED
+    }
+
+    public enum KeyType {
+        // Client address (X-Forwarded-For aware)
+        IP,
+        // email / emailOrUsername / username field of the JSON body; rules are skipped when absent
+        ACCOUNT,
+        // Authenticated user id; falls back to the client IP for anonymous requests
+        USER
+    }
+
+    // Local pre-fetching for the shared backend
+    @Data
+    public static class Sync {
+        // Tokens a replica may consume before synchronizing; a request costing more always synchronizes.
+        // 0 synchronizes every request.
+        private long maxUnsynchronizedTokens = 5;
+
+        // Longest time consumed tokens stay unsynchronized, in milliseconds
+        private long maxUnsynchronizedTimeout = 500;
+    }
+
+    @Data
+    public static class Policy {
+        private String name;
+
+        private KeyType key = KeyType.IP;
+
+        private long capacity;
+
+        // In milliseconds
+        private long refillPeriod = 60000;
+    }
+
+    @Data
+    public static class Route {
+        // Ant-style path pattern
+        private String path;
+
+        // HTTP method, or null for any
+        private String method;
+
+        private String policy;
+
+        private long cost = 1;
+    }
+}
@@ -1,26 +1,38 @@
 package com.musicapp.auth_service.config;
 
+import com.musicapp.auth_service.security.BCryptCalibrator;
+import com.musicapp.auth_service.security.BoundedPasswordEncoder;
 import com.musicapp.auth_service.security.JwtAuthenticationFilter;
 import com.musicapp.auth_service.security.OAuth2AuthenticationFailureHandler;
 import com.musicapp.auth_service.security.OAuth2AuthenticationSuccessHandler;
 import com.musicapp.auth_service.security.RateLimitingFilter;
+import com.musicapp.auth_service.security.ServiceTokenAuthorizationManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -31,20 +43,38 @@ public class SecurityConfig {
     private final OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final RateLimitingFilter rateLimitingFilter;  // ADD
+    private final ServiceTokenAuthorizationManager serviceTokenAuthorizationManager;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingProperties properties, MeterRegistry meterRegistry) {
+        PasswordHashingProperties.Bcrypt bcrypt = properties.getBcrypt();
+        int strength = bcrypt.getStrength() > 0
+                ? bcrypt.getStrength()
+                : BCryptCalibrator.calibrate(Duration.ofMillis(bcrypt.getTargetLatency()), bcrypt.getMinStrength());
+        Gauge.builder("auth.password.bcrypt.strength", () -> strength).register(meterRegistry);
+
+        BCryptPasswordEncoder bcryptEncoder = new BCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcryptEncoder);
+        encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(properties.getAlgorithm(), encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+
+        // Hashing is CPU-bound, so more threads than cores only adds contention
+        int poolSize = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegatingEncoder, poolSize, properties.getQueueCapacity(), meterRegistry);
     }
 
-    @Bean
-    public CorsConfigurationSource corsConfigurationSource() {
-        CorsConfiguration configuration = new CorsConfiguration();
-        configuration.setAllowedOrigins(Arrays.asList(
-                "http://localhost:3000",
-                "http://localhost:5173",
-                "http://localhost:5174"
-        ));
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Arrays.asList(
+                "http://localhost:3000",
+                "http://localhost:5173",
+                "http://localhost:5174"
+        ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
         configuration.setAllowCredentials(true);
@@ -67,17 +97,30 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(
                                 "/api/auth/register",
+                                "/api/auth/username-available",
                                 "/api/auth/login",
+                                "/api/auth/refresh",
+                                "/api/auth/oauth2/token",
                                 "/api/auth/forgot-password",
                                 "/api/auth/reset-password",
                                 "/api/auth/verify-email",
                                 "/api/auth/resend-verification",
+                                "/.well-known/jwks.json",
+                                "/actuator/health/**",
                                 "/login/oauth2/code/**",
                                 "/oauth2/**"
                         ).permitAll()
+                        // Lists every deactivated user id, so only for services holding the shared token
+                        .requestMatchers("/api/auth/revocations").access(serviceTokenAuthorizationManager)
                         .requestMatchers("/api/auth/me", "/api/profile/**", "/api/auth/deactivate-account", "/api/auth/cancel-deactivation").authenticated()
                         .anyRequest().authenticated()
                 )
+                // API clients need a 401 (not the OAuth2 login redirect) to know their access token must be refreshed
+                .exceptionHandling(exceptions -> exceptions
+                        .defaultAuthenticationEntryPointFor(
+                                new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                                request -> request.getRequestURI().startsWith("/api/"))
+                )
                 .oauth2Login(oauth2 -> oauth2
                         .authorizationEndpoint(authorization -> authorization
                                 .baseUri("/oauth2/authorization")
@@ -88,11 +131,12 @@ public class SecurityConfig {
                         .successHandler(oAuth2AuthenticationSuccessHandler)
                         .failureHandler(oAuth2AuthenticationFailureHandler)
                 )
-                .addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class)  // ADD
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After the JWT filter so per-user limits can key on the verified user id
+                .addFilterAfter(rateLimitingFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
 
-}
+}
@@ -19,10 +19,13 @@ public final class AppConstants {
     public static final String ERROR_EMAIL_VERIFIED = "Email is already verified";
     public static final String ERROR_TOKEN_EXPIRED = "Token has expired";
     public static final String ERROR_INVALID_TOKEN = "Invalid token";
+    public static final String ERROR_INVALID_AUTH_HEADER = "Invalid authorization header";
     public static final String ERROR_OAUTH_PASSWORD_RESET = "Cannot reset password for OAuth accounts";
     public static final String ERROR_OAUTH_LOGIN_REQUIRED = "Please use OAuth login";
     public static final String ERROR_OAUTH_VERIFICATION = "OAuth accounts don't require email verification";
     public static final String ERROR_NO_DEACTIVATION_REQUEST = "No deactivation request found";
+    public static final String ERROR_SERVICE_BUSY = "Server is busy. Please try again shortly.";
+    public static final String ERROR_TOO_MANY_LOGIN_ATTEMPTS = "Too many failed login attempts. Please try again later.";
 
     // Success messages
     public static final String SUCCESS_PASSWORD_RESET_SENT = "Password reset email sent successfully";
@@ -31,11 +34,17 @@ public final class AppConstants {
     public static final String SUCCESS_VERIFICATION_SENT = "Verification email sent successfully";
     public static final String SUCCESS_DEACTIVATION_REQUESTED = "Account deactivation requested. You have 7 days to cancel.";
     public static final String SUCCESS_DEACTIVATION_CANCELLED = "Account deactivation cancelled";
+    public static final String SUCCESS_LOGGED_OUT = "Logged out successfully";
 
     // Username generation
     public static final String USERNAME_PREFIX = "user";
     public static final int USERNAME_MIN_LENGTH = 3;
 
+    // Roles
+    public static final String ADMIN_USERNAME = "admin";
+    public static final String ROLE_ADMIN = "ADMIN";
+    public static final String ROLE_USER = "USER";
+
     // Token types
     public static final String BEARER_PREFIX = "Bearer ";
 }
\ No newline at end of file
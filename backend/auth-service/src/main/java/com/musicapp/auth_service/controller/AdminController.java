@@ -1,54 +1,69 @@
 package com.musicapp.auth_service.controller;
 
+import com.musicapp.auth_service.dto.request.AdminUserFilter;
+import com.musicapp.auth_service.dto.response.AccountStatsResponse;
+import com.musicapp.auth_service.dto.response.AdminUserPageResponse;
 import com.musicapp.auth_service.dto.response.AdminUserResponse;
-import com.musicapp.auth_service.model.User;
-import com.musicapp.auth_service.repository.UserRepository;
-import com.musicapp.auth_service.util.UserIdExtractor;
+import com.musicapp.auth_service.security.CurrentUser;
+import com.musicapp.auth_service.service.AccountStatsService;
+import com.musicapp.auth_service.service.AdminUserService;
+import com.musicapp.auth_service.service.UserExportService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final UserRepository userRepository;
-    private final UserIdExtractor userIdExtractor;
+    private final AdminUserService adminUserService;
+    private final UserExportService userExportService;
+    private final AccountStatsService accountStatsService;
 
     @GetMapping("/users")
-    public ResponseEntity<List<AdminUserResponse>> listUsers(
-            @RequestHeader("Authorization") String authHeader
-    ) {
-        String userId = userIdExtractor.extractUserId(authHeader);
-        User admin = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
-
-        if (admin.getUsername() == null || !"admin".equalsIgnoreCase(admin.getUsername())) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin access required");
-        }
-
-        List<AdminUserResponse> users = userRepository.findAll().stream()
-                .map(user -> new AdminUserResponse(
-                        user.getId(),
-                        user.getEmail(),
-                        user.getUsername(),
-                        user.getProfileImageUrl(),
-                        user.getStatus(),
-                        user.getProvider(),
-                        user.getCreatedAt(),
-                        user.getLastLogin()
-                ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(users);
+    public ResponseEntity<AdminUserPageResponse> listUsers(@CurrentUser String userId,
+                                                           AdminUserFilter filter,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        adminUserService.requireAdmin(userId);
+
+        AdminUserService.Page page = adminUserService.listUsers(filter, cursor, limit);
+        return ResponseEntity.ok(new AdminUserPageResponse(page.users(), page.nextCursor(), adminUserService.countUsers(filter)));
+    }
+
+    @GetMapping("/users/search")
+    public ResponseEntity<List<AdminUserResponse>> searchUsers(@CurrentUser String userId,
+                                                               @RequestParam("q") String query,
+                                                               @RequestParam(defaultValue = "20") int limit) {
+        adminUserService.requireAdmin(userId);
+
+        return ResponseEntity.ok(adminUserService.search(query, limit));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<AccountStatsResponse> getStats(@CurrentUser String userId) {
+        adminUserService.requireAdmin(userId);
+
+        return ResponseEntity.ok(accountStatsService.getStats());
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@CurrentUser String userId,
+                                                             @RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(required = false) String after) {
+        adminUserService.requireAdmin(userId);
+
+        UserExportService.Format exportFormat = UserExportService.Format.parse(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(userExportService.export(exportFormat, after));
     }
 }
@@ -4,12 +4,16 @@ import com.musicapp.auth_service.constants.AppConstants;
 import com.musicapp.auth_service.dto.request.*;
 import com.musicapp.auth_service.dto.response.AuthResponse;
 import com.musicapp.auth_service.dto.response.MessageResponse;
+import com.musicapp.auth_service.dto.response.UsernameAvailabilityResponse;
+import com.musicapp.auth_service.dto.response.RevocationFeedResponse;
 import com.musicapp.auth_service.mapper.UserMapper;
-import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import com.musicapp.auth_service.security.CurrentUser;
+import com.musicapp.auth_service.security.TokenClaims;
 import com.musicapp.auth_service.service.AuthService;
 import com.musicapp.auth_service.service.EmailVerificationService;
 import com.musicapp.auth_service.service.PasswordService;
-import com.musicapp.auth_service.util.UserIdExtractor;
+import com.musicapp.auth_service.service.RevocationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -23,7 +27,7 @@ public class AuthController {
     private final AuthService authService;
     private final PasswordService passwordService;
     private final EmailVerificationService emailVerificationService;
-    private final UserIdExtractor userIdExtractor;
+    private final RevocationService revocationService;
     private final UserMapper userMapper;
 
     @PostMapping("/register")
@@ -32,19 +36,43 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/username-available")
+    public ResponseEntity<UsernameAvailabilityResponse> isUsernameAvailable(@RequestParam String username) {
+        return ResponseEntity.ok(new UsernameAvailabilityResponse(username, authService.isUsernameAvailable(username)));
+    }
+
     @PostMapping("/login")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody TokenRequest request) {
+        AuthResponse response = authService.refresh(request.getToken());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/oauth2/token")
+    public ResponseEntity<AuthResponse> exchangeOAuthLoginCode(@Valid @RequestBody TokenRequest request) {
+        AuthResponse response = authService.exchangeOAuthLoginCode(request.getToken());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logout(@CurrentUser TokenClaims claims,
+                                                  @RequestBody(required = false) TokenRequest request) {
+        authService.logout(claims, request != null ? request.getToken() : null);
+        return ResponseEntity.ok(new MessageResponse(AppConstants.SUCCESS_LOGGED_OUT));
+    }
+
     @GetMapping("/me")
-    public ResponseEntity<AuthResponse> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
-        String userId = userIdExtractor.extractUserId(authHeader);
-        User user = authService.getUserById(userId);
+    public ResponseEntity<AuthResponse> getCurrentUser(@CurrentUser String userId,
+                                                       @RequestHeader("Authorization") String authHeader) {
+        UserView user = authService.getUserById(userId);
         String token = authHeader.substring(7); // Keep token for response
 
-        return ResponseEntity.ok(userMapper.toAuthResponse(user,token));
+        return ResponseEntity.ok(userMapper.toAuthResponse(user, token, null));
     }
 
     @PostMapping("/forgot-password")
@@ -72,16 +100,19 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse(AppConstants.SUCCESS_VERIFICATION_SENT));
     }
 
+    @GetMapping("/revocations")
+    public ResponseEntity<RevocationFeedResponse> getRevocations(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(revocationService.getRevocationsSince(since));
+    }
+
     @PostMapping("/deactivate-account")
-    public ResponseEntity<MessageResponse> deactivateAccount(@RequestHeader("Authorization") String authHeader) {
-        String userId = userIdExtractor.extractUserId(authHeader);
+    public ResponseEntity<MessageResponse> deactivateAccount(@CurrentUser String userId) {
         authService.requestAccountDeactivation(userId);
         return ResponseEntity.ok(new MessageResponse(AppConstants.SUCCESS_DEACTIVATION_REQUESTED));
     }
 
     @PostMapping("/cancel-deactivation")
-    public ResponseEntity<MessageResponse> cancelDeactivation(@RequestHeader("Authorization") String authHeader) {
-        String userId = userIdExtractor.extractUserId(authHeader);
+    public ResponseEntity<MessageResponse> cancelDeactivation(@CurrentUser String userId) {
         authService.cancelAccountDeactivation(userId);
         return ResponseEntity.ok(new MessageResponse(AppConstants.SUCCESS_DEACTIVATION_CANCELLED));
     }
@@ -0,0 +1,31 @@
+package com.musicapp.auth_service.controller;
+
+import com.musicapp.auth_service.config.JwtSigningProperties;
+import com.musicapp.auth_service.security.JwtKeyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the token verification keys so other services can check tokens locally.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyStore keyStore;
+    private final JwtSigningProperties properties;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(properties.getJwksMaxAge(), TimeUnit.MILLISECONDS).cachePublic())
+                .body(Map.of("keys", keyStore.getJwks()));
+    }
+}
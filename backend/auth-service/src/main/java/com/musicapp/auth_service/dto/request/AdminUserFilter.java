@@ -0,0 +1,22 @@
+package com.musicapp.auth_service.dto.request;
+
+import com.musicapp.auth_service.model.AccountStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters of the admin user listing, bound from query parameters; unset fields do not filter.
+ */
+@Data
+public class AdminUserFilter {
+    private AccountStatus status;
+    private String provider;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+    private String usernamePrefix;
+    private String emailPrefix;
+}
@@ -0,0 +1,21 @@
+package com.musicapp.auth_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class AccountStatsResponse {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byProvider;
+    // Keyed by ISO date, oldest first; days without sign-ups are left out
+    private Map<String, Long> signupsPerDay;
+    // Users by the day of their most recent login, so a user counts once however often they log in
+    private Map<String, Long> loginsPerDay;
+    // When the counts were last reloaded from Mongo; changes made on this instance are applied since
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,16 @@
+package com.musicapp.auth_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AdminUserPageResponse {
+    private List<AdminUserResponse> users;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+    // Users matching the filters, refreshed at most every cache.admin-user-counts.expire-after-write
+    private long total;
+}
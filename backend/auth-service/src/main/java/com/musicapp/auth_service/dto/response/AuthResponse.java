@@ -11,4 +11,5 @@ public class AuthResponse {
     private String email;
     private String username;
     private String profileImageUrl;
+    private String refreshToken;
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.musicapp.auth_service.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class RevocationFeedResponse {
+    // Pass back as "since" on the next poll
+    private long timestamp;
+    private List<String> revokedUserIds;
+    // The page was full; poll again right away with the new timestamp
+    private boolean hasMore;
+}
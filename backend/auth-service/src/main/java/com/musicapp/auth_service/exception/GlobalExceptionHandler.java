@@ -1,7 +1,10 @@
 package com.musicapp.auth_service.exception;
 
 import com.musicapp.auth_service.dto.response.MessageResponse;
+import com.musicapp.auth_service.exception.custom.LoginThrottledException;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -16,6 +19,21 @@ import java.util.Map;
 @Slf4j
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<MessageResponse> handleServiceBusyException(ServiceBusyException ex) {
+        log.warn("Shedding load: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse(ex.getMessage()));
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<MessageResponse> handleLoginThrottledException(LoginThrottledException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new MessageResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<MessageResponse> handleRuntimeException(RuntimeException ex) {
         log.error("Runtime exception: ", ex);
@@ -0,0 +1,13 @@
+package com.musicapp.auth_service.exception.custom;
+
+import lombok.Getter;
+
+@Getter
+public class LoginThrottledException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
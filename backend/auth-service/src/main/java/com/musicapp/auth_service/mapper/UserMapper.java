@@ -1,8 +1,10 @@
 package com.musicapp.auth_service.mapper;
 
+import com.musicapp.auth_service.dto.response.AdminUserResponse;
 import com.musicapp.auth_service.dto.response.AuthResponse;
 import com.musicapp.auth_service.dto.response.UserProfileResponse;
 import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -21,13 +23,51 @@ public class UserMapper {
         );
     }
 
-    public AuthResponse toAuthResponse(User user, String token) {
+    public UserProfileResponse toUserProfileResponse(UserView user) {
+        return new UserProfileResponse(
+                user.id(),
+                user.email(),
+                user.username(),
+                user.profileImageUrl(),
+                user.status().isVerified(),
+                user.provider(),
+                user.createdAt(),
+                user.lastLogin()
+        );
+    }
+
+    public AdminUserResponse toAdminUserResponse(UserView user) {
+        return new AdminUserResponse(
+                user.id(),
+                user.email(),
+                user.username(),
+                user.profileImageUrl(),
+                user.status(),
+                user.provider(),
+                user.createdAt(),
+                user.lastLogin()
+        );
+    }
+
+    public AuthResponse toAuthResponse(User user, String token, String refreshToken) {
         return new AuthResponse(
                 token,
                 user.getId(),
                 user.getEmail(),
                 user.getUsername(),
-                user.getProfileImageUrl()
+                user.getProfileImageUrl(),
+                refreshToken
+        );
+    }
+
+    public AuthResponse toAuthResponse(UserView user, String token, String refreshToken) {
+        return new AuthResponse(
+                token,
+                user.id(),
+                user.email(),
+                user.username(),
+                user.profileImageUrl(),
+                refreshToken
         );
     }
 }
\ No newline at end of file
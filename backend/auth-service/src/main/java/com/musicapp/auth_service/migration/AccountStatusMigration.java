@@ -0,0 +1,61 @@
+package com.musicapp.auth_service.migration;
+
+import com.musicapp.auth_service.model.AccountStatus;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Replaces the legacy {@code active} / {@code emailVerified} flags with {@link AccountStatus}, as the manual
+ * script in {@code migration-notes.md} used to.
+ */
+@Component
+public class AccountStatusMigration implements Migration {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public String description() {
+        return "Derive users.status from the legacy active/emailVerified flags";
+    }
+
+    @Override
+    public String collection() {
+        return "users";
+    }
+
+    @Override
+    public Criteria pending() {
+        return Criteria.where("status").exists(false);
+    }
+
+    @Override
+    public List<String> fields() {
+        return List.of("active", "emailVerified", "deactivationRequestedAt");
+    }
+
+    @Override
+    public Update migrate(Document user) {
+        AccountStatus status;
+        // A missing flag means the document predates it, when every account was active
+        if (Boolean.FALSE.equals(user.getBoolean("active"))) {
+            status = AccountStatus.DEACTIVATED;
+        } else if (user.get("deactivationRequestedAt") != null) {
+            status = AccountStatus.DEACTIVATION_PENDING;
+        } else if (Boolean.TRUE.equals(user.getBoolean("emailVerified"))) {
+            status = AccountStatus.ACTIVE;
+        } else {
+            status = AccountStatus.PENDING_VERIFICATION;
+        }
+        return new Update()
+                .set("status", status.name())
+                .unset("active")
+                .unset("emailVerified");
+    }
+}
@@ -0,0 +1,35 @@
+package com.musicapp.auth_service.migration;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+/**
+ * A versioned, batch-wise reshaping of one collection, applied by {@link MigrationRunner} in version order.
+ * <p>
+ * A migration must be idempotent: {@link #pending()} matches only documents still in the old shape, and every
+ * update is applied under that same criteria, so a document changed concurrently (or by an earlier, interrupted
+ * run) is left alone. The service has to read both shapes until the migration completes.
+ */
+public interface Migration {
+
+    // Unique and increasing; never renumber a migration that has run anywhere
+    int version();
+
+    String description();
+
+    String collection();
+
+    // Documents that still need this migration
+    Criteria pending();
+
+    // Fields migrate() reads; _id is always included
+    List<String> fields();
+
+    /**
+     * The change for one pending document, or {@code null} to leave it as is.
+     */
+    Update migrate(Document document);
+}
@@ -0,0 +1,259 @@
+package com.musicapp.auth_service.migration;
+
+import com.mongodb.client.result.UpdateResult;
+import com.musicapp.auth_service.config.MigrationProperties;
+import com.musicapp.auth_service.model.SchemaMigration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies pending {@link Migration}s in version order on a background thread once the service is up.
+ * <p>
+ * Each migration walks its pending documents in {@code _id} order, {@code batch-size} at a time, writing each
+ * batch as one unordered bulk update and pausing {@code batch-pause} between batches. Progress is checkpointed
+ * in {@code schema_migrations} after every batch, so a restart resumes after the last handled document instead
+ * of starting over. The same document is a lease: only the replica holding it runs the migration. Replicas that
+ * find it held check back every {@code lease} until it completes, and take over if the owner stopped renewing
+ * it. A failing migration stops the run so later ones never see a half-migrated collection.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MigrationRunner {
+
+    private static final int PROGRESS_LOG_INTERVAL = 20;
+
+    private final List<Migration> migrations;
+    private final MongoTemplate mongoTemplate;
+    private final MigrationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+    private final AtomicInteger schemaVersion = new AtomicInteger();
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        Set<Integer> versions = new HashSet<>();
+        for (Migration migration : migrations) {
+            if (!versions.add(migration.version())) {
+                throw new IllegalStateException("Duplicate migration version " + migration.version());
+            }
+        }
+        Gauge.builder("auth.migration.schema.version", schemaVersion, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || migrations.isEmpty()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-migrations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.submit(this::runUntilComplete);
+    }
+
+    // A replica holding a migration may die without finishing it; check back once its lease could have lapsed
+    private void runUntilComplete() {
+        if (runAll() && !executor.isShutdown()) {
+            log.info("Retrying schema migrations in {} ms", properties.getLease());
+            executor.schedule(this::runUntilComplete, properties.getLease(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Interrupts the current migration between batches; it resumes from its checkpoint on the next start
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs every migration that has not completed yet, stopping at the first one that fails, is interrupted,
+     * or is held by another replica.
+     *
+     * @return {@code true} if it stopped at a migration held by another replica, so the run should be retried
+     */
+    public boolean runAll() {
+        List<Migration> ordered = migrations.stream().sorted(Comparator.comparingInt(Migration::version)).toList();
+        for (Migration migration : ordered) {
+            try {
+                if (!run(migration)) {
+                    return !Thread.currentThread().isInterrupted();
+                }
+            } catch (RuntimeException e) {
+                log.error("Migration {} failed; it resumes from its last checkpoint on the next start",
+                        migration.version(), e);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private boolean run(Migration migration) {
+        SchemaMigration existing = mongoTemplate.findById(migration.version(), SchemaMigration.class);
+        if (existing != null && existing.getStatus() == SchemaMigration.Status.COMPLETED) {
+            schemaVersion.accumulateAndGet(migration.version(), Math::max);
+            return true;
+        }
+        if (existing == null) {
+            try {
+                mongoTemplate.insert(new SchemaMigration(migration.version(), migration.description(),
+                        SchemaMigration.Status.RUNNING, null, 0, 0, null, null, LocalDateTime.now(), null));
+            } catch (DuplicateKeyException e) {
+                // Another replica registered it at the same moment; the lease below decides who runs it
+            }
+        }
+
+        SchemaMigration state = acquire(migration.version());
+        if (state == null) {
+            log.info("Migration {} is held by another instance; later migrations wait for it", migration.version());
+            return false;
+        }
+
+        log.info("Running migration {} ({}), {} documents done so far",
+                migration.version(), migration.description(), state.getProcessed());
+        Counter scanned = Counter.builder("auth.migration.documents")
+                .tag("version", String.valueOf(migration.version())).tag("outcome", "scanned")
+                .register(meterRegistry);
+        Counter modified = Counter.builder("auth.migration.documents")
+                .tag("version", String.valueOf(migration.version())).tag("outcome", "modified")
+                .register(meterRegistry);
+        Timer batchTimer = Timer.builder("auth.migration.batch")
+                .tag("version", String.valueOf(migration.version()))
+                .register(meterRegistry);
+
+        Object lastId = state.getLastId();
+        long processed = state.getProcessed();
+        for (int batchNumber = 1; ; batchNumber++) {
+            List<Document> batch = nextBatch(migration, lastId);
+            if (batch.isEmpty()) {
+                complete(migration.version());
+                log.info("Migration {} completed: {} documents", migration.version(), processed);
+                return true;
+            }
+
+            long start = System.nanoTime();
+            long changed = apply(migration, batch);
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            lastId = batch.get(batch.size() - 1).get("_id");
+            processed += batch.size();
+            scanned.increment(batch.size());
+            modified.increment(changed);
+            if (!checkpoint(migration.version(), lastId, batch.size(), changed)) {
+                log.warn("Lost the lease on migration {}; another instance continues it", migration.version());
+                return false;
+            }
+            if (batchNumber % PROGRESS_LOG_INTERVAL == 0) {
+                log.info("Migration {}: {} documents done", migration.version(), processed);
+            }
+
+            try {
+                Thread.sleep(properties.getBatchPause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private SchemaMigration acquire(int version) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(Criteria.where("_id").is(version)
+                .and("status").is(SchemaMigration.Status.RUNNING)
+                .orOperator(
+                        Criteria.where("owner").is(null),
+                        Criteria.where("owner").is(owner),
+                        Criteria.where("lockedUntil").lt(now)));
+        Update update = new Update()
+                .set("owner", owner)
+                .set("lockedUntil", now.plus(Duration.ofMillis(properties.getLease())));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                SchemaMigration.class);
+    }
+
+    private List<Document> nextBatch(Migration migration, Object lastId) {
+        Criteria criteria = lastId == null
+                ? migration.pending()
+                : new Criteria().andOperator(Criteria.where("_id").gt(lastId), migration.pending());
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(properties.getBatchSize());
+        query.fields().include(migration.fields().toArray(String[]::new));
+        return mongoTemplate.find(query, Document.class, migration.collection());
+    }
+
+    private long apply(Migration migration, List<Document> batch) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, migration.collection());
+        int updates = 0;
+        for (Document document : batch) {
+            Update update = migration.migrate(document);
+            if (update != null) {
+                // Re-checked on write, so a document changed since it was read is not migrated twice
+                bulk.updateOne(Query.query(new Criteria().andOperator(
+                        Criteria.where("_id").is(document.get("_id")), migration.pending())), update);
+                updates++;
+            }
+        }
+        return updates == 0 ? 0 : bulk.execute().getModifiedCount();
+    }
+
+    private boolean checkpoint(int version, Object lastId, int scanned, long modified) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(version).and("owner").is(owner)),
+                new Update()
+                        .set("lastId", lastId)
+                        .inc("processed", scanned)
+                        .inc("modified", modified)
+                        .set("lockedUntil", LocalDateTime.now().plus(Duration.ofMillis(properties.getLease()))),
+                SchemaMigration.class);
+        return result.getMatchedCount() > 0;
+    }
+
+    private void complete(int version) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(version)),
+                new Update()
+                        .set("status", SchemaMigration.Status.COMPLETED)
+                        .set("completedAt", LocalDateTime.now())
+                        .unset("owner")
+                        .unset("lockedUntil"),
+                SchemaMigration.class);
+        schemaVersion.accumulateAndGet(version, Math::max);
+    }
+}
@@ -0,0 +1,12 @@
+package com.musicapp.auth_service.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of {@link User} for the revocation feed: who was deactivated, and when (the feed's page cursor).
+ */
+public record DeactivatedUserView(
+        String id,
+        LocalDateTime deactivatedAt
+) {
+}
@@ -0,0 +1,29 @@
+package com.musicapp.auth_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "oauth_login_codes")
+public class OAuthLoginCode {
+
+    @Id
+    private String id;
+
+    // SHA-256 of the code put in the OAuth2 redirect; the code itself is never stored
+    @Indexed(unique = true)
+    private String codeHash;
+
+    private String userId;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,39 @@
+package com.musicapp.auth_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    private String id;
+
+    // SHA-256 of the opaque token handed to the client; the token itself is never stored
+    @Indexed(unique = true)
+    private String tokenHash;
+
+    @Indexed
+    private String userId;
+
+    // All tokens descending from one login share a family, which is revoked as a whole on reuse
+    @Indexed
+    private String familyId;
+
+    private LocalDateTime createdAt;
+
+    // Set when the token is exchanged; a second exchange of the same token is treated as theft
+    private LocalDateTime usedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
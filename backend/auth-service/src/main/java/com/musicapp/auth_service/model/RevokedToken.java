@@ -0,0 +1,27 @@
+package com.musicapp.auth_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+
+    // The jti claim of the revoked access token
+    @Id
+    private String id;
+
+    private String userId;
+
+    // Same as the token's own expiry; after that the signature check rejects it anyway
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,48 @@
+package com.musicapp.auth_service.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one schema migration, which doubles as its lock and its resume point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "schema_migrations")
+public class SchemaMigration {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    // The migration version
+    @Id
+    private Integer id;
+
+    private String description;
+
+    private Status status;
+
+    // _id of the last document handled; the next batch starts after it
+    private Object lastId;
+
+    private long processed;
+
+    private long modified;
+
+    // Replica currently running the migration, and until when it holds it
+    private String owner;
+
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+}
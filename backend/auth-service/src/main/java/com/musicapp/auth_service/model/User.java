@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -13,6 +15,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+// Status lookups and the deactivation scheduler's scans
+@CompoundIndex(name = "status_deactivationRequestedAt", def = "{'status': 1, 'deactivationRequestedAt': 1}")
+@CompoundIndex(name = "status_deactivatedAt", def = "{'status': 1, 'deactivatedAt': 1}",
+        partialFilter = "{'deactivatedAt': {$exists: true}}")
+@CompoundIndex(name = "provider_providerId", def = "{'provider': 1, 'providerId': 1}",
+        partialFilter = "{'providerId': {$exists: true}}")
 public class User {
 
     @Id
@@ -38,7 +46,15 @@ public class User {
 
     private String providerId;
 
+    // Bumped atomically by RevocationIndex. Read-only: it is left out of every document this entity writes, so a
+    // save() of an existing user would delete it; existing users are only changed through UserRepositoryCustom.
+    // The partial index holds only users ever revoked in bulk, which the revocation index loads at startup
+    @ReadOnlyProperty
+    @Indexed(partialFilter = "{'tokenVersion': {$gt: 0}}")
+    private long tokenVersion;
+
     // Password Reset Fields
+    @Indexed(sparse = true)
     private String passwordResetToken;
 
     private LocalDateTime passwordResetTokenExpiry;
@@ -48,28 +64,8 @@ public class User {
     private LocalDateTime deactivatedAt;
 
     // Email Verification Fields
+    @Indexed(sparse = true)
     private String emailVerificationToken;
 
     private LocalDateTime emailVerificationTokenExpiry;
-
-
-    @Deprecated
-    public boolean isActive() {
-        return status.isActive();
-    }
-
-    @Deprecated
-    public void setEmailVerified(boolean emailVerified) {
-        if (emailVerified && status == AccountStatus.PENDING_VERIFICATION) {
-            status = AccountStatus.ACTIVE;
-        }
-    }
-
-    @Deprecated
-    public void setActive(boolean active) {
-        if (!active && status.canLogin()) {
-            status = AccountStatus.DEACTIVATED;
-        }
-    }
-
 }
\ No newline at end of file
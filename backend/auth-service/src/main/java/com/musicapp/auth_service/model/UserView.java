@@ -0,0 +1,20 @@
+package com.musicapp.auth_service.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of {@link User} holding only the fields that profile and session readers need.
+ * This is what gets cached; credentials and one-time tokens are never loaded into it.
+ */
+public record UserView(
+        String id,
+        String email,
+        String username,
+        String profileImageUrl,
+        AccountStatus status,
+        String provider,
+        LocalDateTime createdAt,
+        LocalDateTime lastLogin,
+        long tokenVersion
+) {
+}
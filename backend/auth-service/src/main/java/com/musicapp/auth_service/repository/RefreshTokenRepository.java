@@ -0,0 +1,16 @@
+package com.musicapp.auth_service.repository;
+
+import com.musicapp.auth_service.model.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    void deleteByFamilyId(String familyId);
+
+    void deleteByUserId(String userId);
+}
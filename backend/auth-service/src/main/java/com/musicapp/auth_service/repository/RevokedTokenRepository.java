@@ -0,0 +1,13 @@
+package com.musicapp.auth_service.repository;
+
+import com.musicapp.auth_service.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime dateTime);
+}
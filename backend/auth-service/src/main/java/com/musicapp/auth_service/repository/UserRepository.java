@@ -1,7 +1,10 @@
 package com.musicapp.auth_service.repository;
 
 import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.DeactivatedUserView;
 import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,7 +13,10 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
+    // Projection: loads only the UserView fields
+    Optional<UserView> findViewById(String id);
+
     Optional<User> findByEmail(String email);
 
     Optional<User> findByUsername(String username);
@@ -34,7 +40,13 @@ public interface UserRepository extends MongoRepository<User, String> {
 
     List<User> findByStatus(AccountStatus status);
 
+    List<DeactivatedUserView> findDeactivatedByStatusAndDeactivatedAtGreaterThanEqualOrderByDeactivatedAtAsc(
+            AccountStatus status, LocalDateTime dateTime, Limit limit);
+
     long countByStatus(AccountStatus status);
 
+    // Users whose earlier tokens were revoked in bulk
+    List<UserView> findViewByTokenVersionGreaterThan(long tokenVersion);
+
 
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.musicapp.auth_service.repository;
+
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Targeted writes to a single user document. Each method sets or unsets only the fields it names, instead of
+ * rewriting the whole document like {@code save}, so concurrent requests touching different fields of the same
+ * user cannot undo each other. State transitions are conditional on the state they start from.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Which of the email and username already belong to an account, in one query; the email wins if both do.
+     *
+     * @return {@code "email"}, {@code "username"}, or empty if both are free
+     */
+    Optional<String> findTakenField(String email, String username);
+
+    void updatePassword(String userId, String encodedPassword);
+
+    /**
+     * Writes many users' {@code lastLogin} in one bulk round trip. A value older than the stored one is ignored.
+     */
+    void recordLastLogins(Map<String, LocalDateTime> lastLogins);
+
+    /**
+     * @return {@code false} if the account is no longer active
+     */
+    boolean requestDeactivation(String userId, LocalDateTime requestedAt);
+
+    /**
+     * @return {@code false} if there was no pending deactivation request to cancel
+     */
+    boolean cancelDeactivation(String userId, AccountStatus restoredStatus);
+
+    /**
+     * @return {@code false} if the request was cancelled in the meantime
+     */
+    boolean markDeactivated(String userId, LocalDateTime deactivatedAt);
+
+    /**
+     * @throws org.springframework.dao.DuplicateKeyException if another user has the username
+     */
+    Optional<User> updateUsername(String userId, String username);
+
+    // null removes the photo
+    Optional<User> updateProfileImageUrl(String userId, String profileImageUrl);
+
+    /**
+     * Links an existing account to an OAuth2 login. A {@code null} picture leaves the stored one unchanged.
+     */
+    void linkProvider(String userId, String provider, String providerId, AccountStatus status, String profileImageUrl);
+
+    void setPasswordResetToken(String userId, String token, LocalDateTime expiry);
+
+    /**
+     * Sets the new password and consumes the reset token, provided it is still unused and unexpired.
+     *
+     * @return the user's id, or empty if the token was already used or has expired
+     */
+    Optional<String> resetPassword(String token, String encodedPassword);
+
+    void setEmailVerificationToken(String userId, String token, LocalDateTime expiry);
+
+    /**
+     * Activates the account holding the token and consumes it, provided it is unexpired and still unverified.
+     *
+     * @return the user's id, or empty if the token was already used or has expired
+     */
+    Optional<String> verifyEmail(String token);
+}
@@ -0,0 +1,153 @@
+package com.musicapp.auth_service.repository;
+
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final List<AccountStatus> ACTIVE_STATUSES =
+            List.of(AccountStatus.ACTIVE, AccountStatus.PENDING_VERIFICATION, AccountStatus.DEACTIVATION_PENDING);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<String> findTakenField(String email, String username) {
+        Query query = Query.query(new Criteria().orOperator(
+                Criteria.where("email").is(email),
+                Criteria.where("username").is(username))).limit(2);
+        query.fields().include("email", "username");
+        List<User> matches = mongoTemplate.find(query, User.class);
+        if (matches.stream().anyMatch(user -> email.equals(user.getEmail()))) {
+            return Optional.of("email");
+        }
+        return matches.isEmpty() ? Optional.empty() : Optional.of("username");
+    }
+
+    @Override
+    public void updatePassword(String userId, String encodedPassword) {
+        mongoTemplate.updateFirst(byId(userId), new Update().set("password", encodedPassword), User.class);
+    }
+
+    @Override
+    public void recordLastLogins(Map<String, LocalDateTime> lastLogins) {
+        if (lastLogins.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        lastLogins.forEach((userId, lastLogin) -> bulk.updateOne(byId(userId), new Update().max("lastLogin", lastLogin)));
+        bulk.execute();
+    }
+
+    @Override
+    public boolean requestDeactivation(String userId, LocalDateTime requestedAt) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and("status").in(ACTIVE_STATUSES));
+        Update update = new Update()
+                .set("status", AccountStatus.DEACTIVATION_PENDING)
+                .set("deactivationRequestedAt", requestedAt);
+        return mongoTemplate.updateFirst(query, update, User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean cancelDeactivation(String userId, AccountStatus restoredStatus) {
+        Query query = Query.query(Criteria.where("_id").is(userId)
+                .and("status").is(AccountStatus.DEACTIVATION_PENDING));
+        Update update = new Update()
+                .set("status", restoredStatus)
+                .unset("deactivationRequestedAt");
+        return mongoTemplate.updateFirst(query, update, User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean markDeactivated(String userId, LocalDateTime deactivatedAt) {
+        Query query = Query.query(Criteria.where("_id").is(userId)
+                .and("status").is(AccountStatus.DEACTIVATION_PENDING));
+        Update update = new Update()
+                .set("status", AccountStatus.DEACTIVATED)
+                .set("deactivatedAt", deactivatedAt);
+        return mongoTemplate.updateFirst(query, update, User.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public Optional<User> updateUsername(String userId, String username) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(byId(userId),
+                new Update().set("username", username),
+                FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+
+    @Override
+    public Optional<User> updateProfileImageUrl(String userId, String profileImageUrl) {
+        Update update = profileImageUrl == null
+                ? new Update().unset("profileImageUrl")
+                : new Update().set("profileImageUrl", profileImageUrl);
+        return Optional.ofNullable(mongoTemplate.findAndModify(byId(userId), update,
+                FindAndModifyOptions.options().returnNew(true), User.class));
+    }
+
+    @Override
+    public void linkProvider(String userId, String provider, String providerId, AccountStatus status, String profileImageUrl) {
+        Update update = new Update()
+                .set("provider", provider)
+                .set("providerId", providerId)
+                .set("status", status);
+        if (profileImageUrl != null) {
+            update.set("profileImageUrl", profileImageUrl);
+        }
+        mongoTemplate.updateFirst(byId(userId), update, User.class);
+    }
+
+    @Override
+    public void setPasswordResetToken(String userId, String token, LocalDateTime expiry) {
+        mongoTemplate.updateFirst(byId(userId),
+                new Update().set("passwordResetToken", token).set("passwordResetTokenExpiry", expiry),
+                User.class);
+    }
+
+    @Override
+    public Optional<String> resetPassword(String token, String encodedPassword) {
+        Query query = Query.query(Criteria.where("passwordResetToken").is(token)
+                .and("passwordResetTokenExpiry").gt(LocalDateTime.now()));
+        query.fields().include("_id");
+        Update update = new Update()
+                .set("password", encodedPassword)
+                .unset("passwordResetToken")
+                .unset("passwordResetTokenExpiry");
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, User.class)).map(User::getId);
+    }
+
+    @Override
+    public void setEmailVerificationToken(String userId, String token, LocalDateTime expiry) {
+        mongoTemplate.updateFirst(byId(userId),
+                new Update().set("emailVerificationToken", token).set("emailVerificationTokenExpiry", expiry),
+                User.class);
+    }
+
+    @Override
+    public Optional<String> verifyEmail(String token) {
+        Query query = Query.query(Criteria.where("emailVerificationToken").is(token)
+                .and("emailVerificationTokenExpiry").gt(LocalDateTime.now())
+                .and("status").is(AccountStatus.PENDING_VERIFICATION));
+        query.fields().include("_id");
+        Update update = new Update()
+                .set("status", AccountStatus.ACTIVE)
+                .unset("emailVerificationToken")
+                .unset("emailVerificationTokenExpiry");
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, User.class)).map(User::getId);
+    }
+
+    private static Query byId(String userId) {
+        return Query.query(Criteria.where("_id").is(userId));
+    }
+}
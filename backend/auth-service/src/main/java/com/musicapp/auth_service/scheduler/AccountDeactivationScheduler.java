@@ -3,6 +3,10 @@ package com.musicapp.auth_service.scheduler;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.RevocationIndex;
+import com.musicapp.auth_service.security.UserPrincipalService;
+import com.musicapp.auth_service.service.AccountStatsService;
+import com.musicapp.auth_service.service.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,6 +24,10 @@ import java.util.List;
 public class AccountDeactivationScheduler {
 
     private final UserRepository userRepository;
+    private final UserPrincipalService userPrincipalService;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationIndex revocationIndex;
+    private final AccountStatsService accountStatsService;
 
     @Value("${password.reset.grace.period}")
     private Long gracePeriod;
@@ -32,13 +40,20 @@ public class AccountDeactivationScheduler {
 
         List<User> usersToDeactivate = userRepository.findByStatusAndDeactivationRequestedAtBefore(AccountStatus.DEACTIVATION_PENDING, gracePeriodEnd);
 
+        int deactivated = 0;
         for (User user : usersToDeactivate) {
-            user.setStatus(AccountStatus.DEACTIVATED);
-            user.setDeactivatedAt(LocalDateTime.now());
-            userRepository.save(user);
+            // Skipped if the user logged in and cancelled since the query ran
+            if (!userRepository.markDeactivated(user.getId(), LocalDateTime.now())) {
+                continue;
+            }
+            deactivated++;
+            accountStatsService.recordStatusChange(AccountStatus.DEACTIVATION_PENDING, AccountStatus.DEACTIVATED);
+            userPrincipalService.evict(user.getId());
+            refreshTokenService.revokeAll(user.getId());
+            revocationIndex.revokeUser(user.getId());
             log.info("Deactivated account for user: {}", user.getEmail());
         }
 
-        log.info("Account deactivation job completed. Deactivated {} accounts", usersToDeactivate.size());
+        log.info("Account deactivation job completed. Deactivated {} accounts", deactivated);
     }
 }
\ No newline at end of file
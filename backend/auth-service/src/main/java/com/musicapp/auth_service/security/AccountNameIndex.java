@@ -0,0 +1,156 @@
+package com.musicapp.auth_service.security;
+
+import com.musicapp.auth_service.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every email and username in use, so availability checks for names nobody has
+ * can skip the database.
+ * <p>
+ * A miss is definitive: the name is free. A hit must be confirmed against Mongo, and the unique indexes remain
+ * the final word either way. The filter is streamed from {@code users} at startup and periodically, and new
+ * accounts and renames are added as they happen. Names given up by a rename or by another instance's sign-up
+ * are only reconciled by the next rebuild; the first is a false positive, the second is caught by the unique
+ * index on insert. Until the first build completes every name counts as possibly taken.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccountNameIndex {
+
+    private static final String EMAIL_PREFIX = "e:";
+    private static final String USERNAME_PREFIX = "u:";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account-names.bloom.expected-insertions}")
+    private long expectedInsertions;
+
+    @Value("${account-names.bloom.false-positive-rate}")
+    private double falsePositiveRate;
+
+    // Only one rebuild at a time; writers never wait for it
+    private final Object lock = new Object();
+    private volatile BloomFilter names;
+    // Set while a rebuild streams the collection, so names added meanwhile reach the new filter too
+    private volatile BloomFilter building;
+
+    private Counter skipped;
+    private Counter checked;
+
+    @PostConstruct
+    void init() {
+        skipped = Counter.builder("auth.names.lookups").tag("result", "skipped").register(meterRegistry);
+        checked = Counter.builder("auth.names.lookups").tag("result", "checked").register(meterRegistry);
+        Gauge.builder("auth.names.bloom.expected_fpp", this, index -> index.names == null ? 1 : index.names.expectedFpp())
+                .register(meterRegistry);
+        Gauge.builder("auth.names.bloom.size", this, index -> index.names == null ? 0 : index.names.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.names.bloom.entries", this, index -> index.names == null ? 0 : index.names.insertions())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} only if no account has the email
+     */
+    public boolean mightHaveEmail(String email) {
+        return mightContain(EMAIL_PREFIX + email);
+    }
+
+    /**
+     * @return {@code false} only if no account has the username
+     */
+    public boolean mightHaveUsername(String username) {
+        return mightContain(USERNAME_PREFIX + username);
+    }
+
+    /**
+     * Records a newly created account; call after the insert succeeded.
+     */
+    public void addAccount(String email, String username) {
+        put(EMAIL_PREFIX + email);
+        if (username != null) {
+            put(USERNAME_PREFIX + username);
+        }
+    }
+
+    /**
+     * Records a username taken by a rename; call after the update succeeded.
+     */
+    public void addUsername(String username) {
+        put(USERNAME_PREFIX + username);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${account-names.rebuild-interval}", initialDelayString = "${account-names.rebuild-interval}")
+    public void rebuild() {
+        synchronized (lock) {
+            long accounts = mongoTemplate.estimatedCount(User.class);
+            // Two entries per account, with headroom so the false-positive rate holds until the next rebuild
+            BloomFilter filter = BloomFilter.create(Math.max(expectedInsertions, accounts * 4), falsePositiveRate);
+            building = filter;
+            try {
+                Query query = new Query().cursorBatchSize(1000);
+                query.fields().include("email", "username");
+                long streamed = 0;
+                try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+                    for (Document user : (Iterable<Document>) users::iterator) {
+                        if (user.getString("email") != null) {
+                            filter.put(EMAIL_PREFIX + user.getString("email"));
+                        }
+                        if (user.getString("username") != null) {
+                            filter.put(USERNAME_PREFIX + user.getString("username"));
+                        }
+                        streamed++;
+                    }
+                }
+                names = filter;
+                log.info("Account name index rebuilt from {} users", streamed);
+            } catch (RuntimeException e) {
+                // Keep answering from the previous filter (or from Mongo, before the first build)
+                log.error("Could not rebuild account name index: {}", e.getMessage());
+            } finally {
+                building = null;
+            }
+        }
+    }
+
+    private boolean mightContain(String key) {
+        BloomFilter current = names;
+        if (current != null && !current.mightContain(key)) {
+            skipped.increment();
+            return false;
+        }
+        checked.increment();
+        return true;
+    }
+
+    private void put(String key) {
+        BloomFilter current = names;
+        if (current != null) {
+            current.put(key);
+        }
+        // Read after the database write, so a rebuild either streams the new name or is already watching for it
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+}
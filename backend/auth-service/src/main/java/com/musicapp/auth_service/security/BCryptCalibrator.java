@@ -0,0 +1,44 @@
+package com.musicapp.auth_service.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Picks the highest BCrypt work factor whose hash time fits a latency budget on the current hardware.
+ */
+@Slf4j
+public final class BCryptCalibrator {
+
+    // BCrypt accepts costs from 4 to 31
+    public static final int MAX_STRENGTH = 31;
+
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength) {
+        // Best of a few runs, so JIT warm-up and noisy neighbours do not push the cost down
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        // Each cost step doubles the work
+        int strength = minStrength;
+        long estimate = fastest;
+        while (strength < MAX_STRENGTH && estimate * 2 <= target.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+
+        log.info("BCrypt calibrated to cost {} (~{} ms per hash, budget {} ms)",
+                strength, Duration.ofNanos(estimate).toMillis(), target.toMillis());
+        return strength;
+    }
+}
@@ -0,0 +1,95 @@
+package com.musicapp.auth_service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter over strings. {@link #mightContain(String)} never returns a false
+ * negative; false positives occur at roughly {@link #expectedFpp()} and must be confirmed by the caller.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Sizes the filter so that {@code expectedInsertions} entries give at most {@code fpp} false positives.
+     */
+    static BloomFilter create(long expectedInsertions, double fpp) {
+        long n = Math.max(1, expectedInsertions);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+        int k = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+        return new BloomFilter(m, k);
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = bits.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(index, word, word | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    long sizeInBytes() {
+        return bits.length() * 8L;
+    }
+
+    /**
+     * False-positive probability for the number of entries inserted so far: (1 - e^(-kn/m))^k.
+     */
+    double expectedFpp() {
+        return Math.pow(1 - Math.exp(-hashCount * (double) insertions.get() / bitCount), hashCount);
+    }
+
+    // 64-bit FNV-1a followed by a murmur finalizer, split into two 32-bit hashes for double hashing
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e7f3e7b1bL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
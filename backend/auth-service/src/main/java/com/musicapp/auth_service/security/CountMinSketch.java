@@ -0,0 +1,169 @@
+package com.musicapp.auth_service.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe count-min sketch of recent events per string key. Each cell packs a counter with the
+ * time of its last increment; a cell untouched for longer than the caller's window counts as zero, so old
+ * events age out without a sweep. Collisions can only inflate an estimate, never lower it.
+ */
+final class CountMinSketch {
+
+    private static final long COUNT_MASK = 0xffffffffL;
+
+    private final AtomicLongArray cells;
+    private final int width;
+    private final int depth;
+
+    CountMinSketch(int width, int depth) {
+        this.cells = new AtomicLongArray(Math.multiplyExact(width, depth));
+        this.width = width;
+        this.depth = depth;
+    }
+
+    /**
+     * Counts an event at {@code now} (epoch seconds) and returns the key's new estimate. Conservative update:
+     * only cells below the new estimate are raised, which keeps colliding keys from inflating each other.
+     */
+    long increment(String key, long now, long window) {
+        int[] indexes = indexes(key);
+        long target = estimate(indexes, now, window) + 1;
+        for (int index : indexes) {
+            long cell;
+            long updated;
+            do {
+                cell = cells.get(index);
+                long count = Math.max(count(cell, now, window), target);
+                updated = pack(Math.min(count, COUNT_MASK), now);
+            } while (cell != updated && !cells.compareAndSet(index, cell, updated));
+        }
+        return target;
+    }
+
+    /**
+     * Events counted for the key within {@code window} seconds before {@code now}.
+     */
+    long estimate(String key, long now, long window) {
+        return estimate(indexes(key), now, window);
+    }
+
+    /**
+     * Latest event time for the key, in epoch seconds; only meaningful when its estimate is non-zero.
+     */
+    long lastUpdated(String key) {
+        long latest = Long.MAX_VALUE;
+        for (int index : indexes(key)) {
+            latest = Math.min(latest, cells.get(index) >>> 32);
+        }
+        return latest;
+    }
+
+    /**
+     * Takes the key's estimate back out of its cells, e.g. once the failures it counted no longer matter.
+     * Colliding keys lose at most the same amount.
+     */
+    void subtract(String key, long now, long window) {
+        int[] indexes = indexes(key);
+        long amount = estimate(indexes, now, window);
+        if (amount == 0) {
+            return;
+        }
+        for (int index : indexes) {
+            long cell;
+            long updated;
+            do {
+                cell = cells.get(index);
+                updated = pack(Math.max(0, count(cell, now, window) - amount), cell >>> 32);
+            } while (!cells.compareAndSet(index, cell, updated));
+        }
+    }
+
+    /**
+     * Raises every cell to at least the corresponding cell of {@code snapshot}; the result over-estimates both.
+     * A snapshot of different dimensions is ignored.
+     */
+    boolean merge(byte[] snapshot, long now, long window) {
+        if (snapshot.length != cells.length() * 8L) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        for (int index = 0; index < cells.length(); index++) {
+            long other = buffer.getLong();
+            long cell;
+            do {
+                cell = cells.get(index);
+            } while (count(other, now, window) > count(cell, now, window) && !cells.compareAndSet(index, cell, other));
+        }
+        return true;
+    }
+
+    /**
+     * Share of cells holding a count within {@code window}; the closer to 1, the more keys read as colliding.
+     */
+    double fill(long now, long window) {
+        int used = 0;
+        for (int index = 0; index < cells.length(); index++) {
+            if (count(cells.get(index), now, window) > 0) {
+                used++;
+            }
+        }
+        return (double) used / cells.length();
+    }
+
+    byte[] snapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(cells.length() * 8);
+        for (int index = 0; index < cells.length(); index++) {
+            buffer.putLong(cells.get(index));
+        }
+        return buffer.array();
+    }
+
+    long sizeInBytes() {
+        return cells.length() * 8L;
+    }
+
+    private long estimate(int[] indexes, long now, long window) {
+        long min = Long.MAX_VALUE;
+        for (int index : indexes) {
+            min = Math.min(min, count(cells.get(index), now, window));
+        }
+        return min;
+    }
+
+    private static long count(long cell, long now, long window) {
+        return now - (cell >>> 32) > window ? 0 : cell & COUNT_MASK;
+    }
+
+    private static long pack(long count, long time) {
+        return (time << 32) | count;
+    }
+
+    // One cell per row, picked by double hashing like BloomFilter
+    private int[] indexes(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int[] indexes = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            indexes[row] = row * width + Math.floorMod(h1 + (row + 1) * h2, width);
+        }
+        return indexes;
+    }
+
+    // 64-bit FNV-1a followed by a murmur finalizer
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e7f3e7b1bL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
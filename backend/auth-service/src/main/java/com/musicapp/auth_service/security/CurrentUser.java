@@ -0,0 +1,17 @@
+package com.musicapp.auth_service.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a controller parameter to the caller verified by {@link JwtAuthenticationFilter}.
+ * Supported parameter types are {@link String} (the user id) and {@link TokenClaims}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
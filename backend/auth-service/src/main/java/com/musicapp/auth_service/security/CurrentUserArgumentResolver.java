@@ -0,0 +1,38 @@
+package com.musicapp.auth_service.security;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link CurrentUser} parameters from the claims the JWT filter already verified,
+ * so controllers never parse the bearer token a second time.
+ */
+@Component
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        Class<?> type = parameter.getParameterType();
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && (type == String.class || type == TokenClaims.class);
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        TokenClaims claims = (TokenClaims) webRequest.getAttribute(
+                JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        if (claims == null) {
+            throw new RuntimeException(AppConstants.ERROR_INVALID_AUTH_HEADER);
+        }
+
+        return parameter.getParameterType() == TokenClaims.class ? claims : claims.userId();
+    }
+}
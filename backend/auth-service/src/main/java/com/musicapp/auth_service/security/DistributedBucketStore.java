@@ -0,0 +1,64 @@
+package com.musicapp.auth_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+/**
+ * Buckets whose state is shared by every replica through a Bucket4j {@link ProxyManager}, so N replicas still
+ * enforce one limit.
+ * <p>
+ * Proxies are cached per key because they carry the local pre-fetch state: a consumption is applied locally and
+ * only synchronized once the unsynchronized tokens exceed {@code sync.maxUnsynchronizedTokens} or the timeout
+ * elapses. Cheap requests therefore reach the shared store in batches, while a single expensive request
+ * (cost above the threshold) is always checked against it. Each replica can overshoot the shared limit by at
+ * most the threshold. A threshold of 0 synchronizes every consumption, still merging concurrent ones.
+ */
+public class DistributedBucketStore implements RateLimitBucketStore {
+
+    private final ProxyManager<String> proxyManager;
+    private final Optimization optimization;
+    private final Cache<String, Bucket> proxies;
+
+    public DistributedBucketStore(ProxyManager<String> proxyManager, long maxUnsynchronizedTokens,
+                                  Duration maxUnsynchronizedTimeout, long maxKeys, Duration idleTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.proxyManager = proxyManager;
+        this.optimization = maxUnsynchronizedTokens > 0
+                ? Optimizations.delaying(new DelayParameters(maxUnsynchronizedTokens, maxUnsynchronizedTimeout))
+                : Optimizations.batching();
+        this.proxies = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, proxies, "rate-limit-buckets");
+    }
+
+    @Override
+    public Bucket resolve(String key, BucketConfiguration configuration) {
+        // Building a proxy is local; the shared store is only contacted when tokens are consumed
+        return proxies.get(key, k -> proxyManager.builder()
+                .withOptimization(optimization)
+                .build(k, configuration));
+    }
+
+    @Override
+    public long trackedKeys() {
+        return proxies.estimatedSize();
+    }
+
+    @Override
+    public void cleanUp() {
+        proxies.cleanUp();
+    }
+}
@@ -1,14 +1,13 @@
 package com.musicapp.auth_service.security;
 
 import com.musicapp.auth_service.constants.AppConstants;
-import com.musicapp.auth_service.model.User;
-import com.musicapp.auth_service.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -16,15 +15,21 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /**
+     * Request attribute holding the {@link TokenClaims} of the authenticated caller.
+     */
+    public static final String CLAIMS_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".CLAIMS";
+
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final UserPrincipalService userPrincipalService;
+    private final RevocationIndex revocationIndex;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,18 +38,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.validateToken(jwt)) {
-                String userId = jwtUtil.getUserIdFromToken(jwt);
+            Optional<TokenClaims> claims = StringUtils.hasText(jwt) ? jwtUtil.parseToken(jwt) : Optional.empty();
 
-                Optional<User> userOptional = userRepository.findById(userId);
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
+            if (claims.isPresent() && !revocationIndex.isRevoked(claims.get())) {
+                String userId = claims.get().userId();
 
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
+                UserPrincipal principal = userPrincipalService.loadPrincipal(userId);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + principal.role())));
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    request.setAttribute(CLAIMS_ATTRIBUTE, claims.get());
                 }
             }
         } catch (Exception ex) {
@@ -0,0 +1,183 @@
+package com.musicapp.auth_service.security;
+
+import com.musicapp.auth_service.config.JwtSigningProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds the keys used to sign and verify tokens, resolved once at startup.
+ * <p>
+ * In {@code ES256} mode tokens carry a {@code kid} header and are verified against the matching public key.
+ * Tokens without a {@code kid} are HS512 tokens issued before the switch; they are only accepted, with the
+ * shared secret, while {@code jwt.signing.accept-legacy-hmac} is on, and rejected otherwise.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtKeyStore {
+
+    private static final int P256_COORDINATE_LENGTH = 32;
+
+    private final JwtSigningProperties properties;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Getter
+    private SignatureAlgorithm algorithm;
+
+    @Getter
+    private String activeKid;
+
+    @Getter
+    private Key signingKey;
+
+    @Getter
+    private List<Map<String, Object>> jwks;
+
+    private Key hmacKey;
+    private boolean acceptHmac;
+    private Map<String, Key> verificationKeys;
+
+    @PostConstruct
+    void init() {
+        algorithm = SignatureAlgorithm.forName(properties.getAlgorithm());
+        hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+
+        if (algorithm == SignatureAlgorithm.HS512) {
+            acceptHmac = true;
+            signingKey = hmacKey;
+            verificationKeys = Map.of();
+            jwks = List.of();
+            return;
+        }
+        if (algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Unsupported jwt.signing.algorithm: " + properties.getAlgorithm());
+        }
+
+        acceptHmac = properties.isAcceptLegacyHmac();
+        if (acceptHmac) {
+            log.warn("jwt.signing.accept-legacy-hmac is on: HS512 tokens signed with jwt.secret are still accepted");
+        }
+
+        Map<String, Key> publicKeys = new HashMap<>();
+        List<Map<String, Object>> jwkList = new ArrayList<>();
+
+        if (properties.getKeys().isEmpty()) {
+            // Single-node development fallback: tokens do not survive a restart
+            KeyPair keyPair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+            activeKid = "ephemeral-" + UUID.randomUUID();
+            signingKey = keyPair.getPrivate();
+            publicKeys.put(activeKid, keyPair.getPublic());
+            jwkList.add(toJwk(activeKid, (ECPublicKey) keyPair.getPublic()));
+            log.warn("No jwt.signing.keys configured, generated ephemeral ES256 key {}", activeKid);
+        } else {
+            activeKid = properties.getActiveKid();
+            for (JwtSigningProperties.SigningKey key : properties.getKeys()) {
+                PublicKey publicKey = parsePublicKey(key.getPublicKey());
+                publicKeys.put(key.getKid(), publicKey);
+                jwkList.add(toJwk(key.getKid(), (ECPublicKey) publicKey));
+                if (key.getKid().equals(activeKid)) {
+                    if (!StringUtils.hasText(key.getPrivateKey())) {
+                        throw new IllegalStateException("Active signing key " + activeKid + " has no private key");
+                    }
+                    signingKey = parsePrivateKey(key.getPrivateKey());
+                }
+            }
+            if (signingKey == null) {
+                throw new IllegalStateException("jwt.signing.active-kid " + activeKid + " is not among jwt.signing.keys");
+            }
+        }
+
+        verificationKeys = Map.copyOf(publicKeys);
+        jwks = List.copyOf(jwkList);
+    }
+
+    /**
+     * Picks the verification key for a token based on its header.
+     */
+    public Key resolveVerificationKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (!acceptHmac) {
+                throw new JwtException("Token has no signing key id");
+            }
+            return hmacKey;
+        }
+        Key key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    private static Map<String, Object> toJwk(String kid, ECPublicKey publicKey) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "EC");
+        jwk.put("crv", "P-256");
+        jwk.put("use", "sig");
+        jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+        jwk.put("kid", kid);
+        jwk.put("x", encoder.encodeToString(toFixedLength(publicKey.getW().getAffineX())));
+        jwk.put("y", encoder.encodeToString(toFixedLength(publicKey.getW().getAffineY())));
+        return Map.copyOf(jwk);
+    }
+
+    private static byte[] toFixedLength(BigInteger coordinate) {
+        byte[] bytes = coordinate.toByteArray();
+        byte[] fixed = new byte[P256_COORDINATE_LENGTH];
+        int length = Math.min(bytes.length, P256_COORDINATE_LENGTH);
+        System.arraycopy(bytes, bytes.length - length, fixed, P256_COORDINATE_LENGTH - length, length);
+        return fixed;
+    }
+
+    private static PublicKey parsePublicKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC public key in jwt.signing.keys", e);
+        }
+    }
+
+    private static PrivateKey parsePrivateKey(String encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(decodePem(encoded)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC private key in jwt.signing.keys", e);
+        }
+    }
+
+    private static byte[] decodePem(String encoded) {
+        String base64 = encoded.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -1,9 +1,16 @@
 package com.musicapp.auth_service.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -11,58 +18,119 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
+    private final MeterRegistry meterRegistry;
+    private final JwtKeyStore keyStore;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    // The parser is immutable and thread-safe, so it is built once and shared by all requests
+    private JwtParser parser;
+
+    private Timer signTimer;
+    private Timer verifyTimer;
+    private Timer rejectTimer;
+
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return keyStore.resolveVerificationKey(header);
+                    }
+                })
+                .build();
+
+        signTimer = Timer.builder("auth.jwt.sign").register(meterRegistry);
+        verifyTimer = Timer.builder("auth.jwt.parse").tag("result", "valid").register(meterRegistry);
+        rejectTimer = Timer.builder("auth.jwt.parse").tag("result", "invalid").register(meterRegistry);
     }
 
-    public String generateToken(String userId, String email) {
+    /**
+     * @param tokenVersion the user's current token version; see {@link RevocationIndex}
+     */
+    public String generateToken(String userId, String email, long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("email", email);
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_EMAIL, email);
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
         return createToken(claims, email);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
+        long start = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (keyStore.getActiveKid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, keyStore.getActiveKid());
+        }
+
+        String token = builder
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(keyStore.getSigningKey(), keyStore.getAlgorithm())
                 .compact();
+        signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    /**
+     * Verifies the signature and expiry of the token and decodes its claims in a single pass.
+     *
+     * @return the verified claims, or empty if the token is malformed, tampered with or expired
+     */
+    public Optional<TokenClaims> parseToken(String token) {
+        try {
+            return Optional.of(verify(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("userId", String.class);
+        return verify(token).userId();
     }
 
     public boolean validateToken(String token) {
+        return parseToken(token).isPresent();
+    }
+
+    private TokenClaims verify(String token) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Long.class);
+            TokenClaims tokenClaims = new TokenClaims(
+                    claims.get(CLAIM_USER_ID, String.class),
+                    claims.get(CLAIM_EMAIL, String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                    claims.getId(),
+                    tokenVersion != null ? tokenVersion : 0
+            );
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return tokenClaims;
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.musicapp.auth_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+/**
+ * Holds one rate-limit bucket per client key in this JVM, bounded in both size and lifetime.
+ * Each replica enforces its own limits; see {@link DistributedBucketStore} for shared limits.
+ * <p>
+ * A bucket idle for longer than its refill period is full again, so expiring it after {@code idleTimeout}
+ * forgets nothing. The size cap protects against scans and large NAT populations: Caffeine's W-TinyLFU policy
+ * evicts one-off keys before the frequent ones that are actually being limited. Lookups are lock-free reads on a
+ * striped hash table.
+ */
+public class LocalBucketStore implements RateLimitBucketStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalBucketStore(long maxKeys, Duration idleTimeout, MeterRegistry meterRegistry) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        // Exposes cache.size (tracked keys) and cache.evictions, tagged cache=rate-limit-buckets
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit-buckets");
+    }
+
+    @Override
+    public Bucket resolve(String key, BucketConfiguration configuration) {
+        return buckets.get(key, k -> {
+            LocalBucketBuilder builder = Bucket.builder();
+            for (Bandwidth bandwidth : configuration.getBandwidths()) {
+                builder.addLimit(bandwidth);
+            }
+            return builder.build();
+        });
+    }
+
+    @Override
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    @Override
+    public void cleanUp() {
+        buckets.cleanUp();
+    }
+}
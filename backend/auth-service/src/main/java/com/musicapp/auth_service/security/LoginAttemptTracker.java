@@ -0,0 +1,254 @@
+package com.musicapp.auth_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.exception.custom.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Failed login attempts per account, with exponential lockout.
+ * <p>
+ * Failures against an existing account are counted under its user id, so typing its email or its username
+ * draws on the same budget. Identities that match no account are counted as typed (trimmed, lower-cased) and
+ * locked the same way, so a lockout does not reveal whether an account exists. They are kept apart from the
+ * accounts: failing on them costs an attacker no password hash, so they must not be able to fill the account
+ * counts. They live in a size-capped in-memory map that evicts the rarest names first and is not persisted.
+ * <p>
+ * After {@code free-attempts} failures the account is locked for {@code base-lockout}, doubling with every
+ * further failure up to {@code max-lockout}. Locked attempts are rejected before the password hash, so
+ * guessing against one account costs almost no CPU however many addresses it comes from. Failures older than
+ * {@code reset-after} are forgotten and a successful login clears them.
+ * <p>
+ * Account counts live in a fixed-size {@link CountMinSketch}, so memory stays flat under credential stuffing;
+ * collisions can only lock an account early, never let one through. Once more than {@code sketch.max-fill} of
+ * its cells are in use, collisions would start locking out accounts nobody attacked, so account lockouts are
+ * suspended (and {@code auth.login.attempts.sketch.saturated} reads 1) until enough cells age out.
+ * <p>
+ * Each instance saves its sketch to {@code login_attempts} under its own id, periodically and at shutdown. At
+ * startup the snapshots of all instances are merged in, and those older than {@code reset-after} are deleted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginAttemptTracker {
+
+    private static final String COLLECTION = "login_attempts";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${login-throttle.free-attempts}")
+    private int freeAttempts;
+
+    @Value("${login-throttle.base-lockout}")
+    private long baseLockout;
+
+    @Value("${login-throttle.max-lockout}")
+    private long maxLockout;
+
+    @Value("${login-throttle.reset-after}")
+    private long resetAfter;
+
+    @Value("${login-throttle.sketch.width}")
+    private int width;
+
+    @Value("${login-throttle.sketch.depth}")
+    private int depth;
+
+    @Value("${login-throttle.sketch.max-fill}")
+    private double maxFill;
+
+    @Value("${login-throttle.unknown-identities.max-size}")
+    private long maxUnknownIdentities;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final String snapshotId = UUID.randomUUID().toString();
+
+    private CountMinSketch failures;
+    private Cache<String, Attempts> unknownIdentities;
+    private volatile double fill;
+    private volatile boolean saturated;
+    private Counter rejections;
+    private Counter lockouts;
+
+    @PostConstruct
+    void init() {
+        failures = new CountMinSketch(width, depth);
+        unknownIdentities = Caffeine.newBuilder()
+                .maximumSize(maxUnknownIdentities)
+                .recordStats()
+                .build();
+        // Exposes cache.size and cache.evictions, tagged cache=login-unknown-identities
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownIdentities, "login-unknown-identities");
+
+        rejections = Counter.builder("auth.login.throttled").register(meterRegistry);
+        lockouts = Counter.builder("auth.login.lockouts").register(meterRegistry);
+        Gauge.builder("auth.login.attempts.sketch.size", this, tracker -> tracker.failures.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.attempts.sketch.fill", this, tracker -> tracker.fill).register(meterRegistry);
+        Gauge.builder("auth.login.attempts.sketch.saturated", this, tracker -> tracker.saturated ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects the attempt while the identity as typed is locked out; checked before the user lookup.
+     *
+     * @throws LoginThrottledException carrying the seconds left until the next attempt is allowed
+     */
+    public void checkAllowed(String identity) {
+        Attempts attempts = unknownIdentities.getIfPresent(identityKey(identity));
+        if (attempts != null) {
+            long now = now();
+            check(attempts.count(now, resetAfterSeconds()), attempts.lastFailure(), now);
+        }
+    }
+
+    /**
+     * Rejects the attempt while the account is locked out, whichever of its names was typed.
+     *
+     * @throws LoginThrottledException carrying the seconds left until the next attempt is allowed
+     */
+    public void checkAccountAllowed(String userId) {
+        if (saturated) {
+            return;
+        }
+        long now = now();
+        check(failures.estimate(userId, now, resetAfterSeconds()), failures.lastUpdated(userId), now);
+    }
+
+    /**
+     * Records a failed attempt for an identity that matches no account.
+     */
+    public void recordFailure(String identity) {
+        long now = now();
+        long window = resetAfterSeconds();
+        Attempts attempts = unknownIdentities.asMap().compute(identityKey(identity),
+                (key, previous) -> new Attempts(previous == null ? 1 : previous.count(now, window) + 1, now));
+        countLockout(attempts.count());
+    }
+
+    public void recordAccountFailure(String userId) {
+        countLockout(failures.increment(userId, now(), resetAfterSeconds()));
+    }
+
+    public void recordAccountSuccess(String userId) {
+        failures.subtract(userId, now(), resetAfterSeconds());
+    }
+
+    /**
+     * Re-measures how full the account sketch is, suspending account lockouts while it is saturated.
+     */
+    @Scheduled(fixedDelayString = "${login-throttle.sketch.fill-check-interval}")
+    public void checkSaturation() {
+        fill = failures.fill(now(), resetAfterSeconds());
+        boolean nowSaturated = fill > maxFill;
+        if (nowSaturated != saturated) {
+            saturated = nowSaturated;
+            if (nowSaturated) {
+                log.warn("Login attempt sketch is {}% full; account lockouts are suspended", Math.round(fill * 100));
+            } else {
+                log.info("Login attempt sketch is back to {}% full; account lockouts resumed", Math.round(fill * 100));
+            }
+        }
+    }
+
+    private void check(long count, long lastFailure, long now) {
+        if (count < freeAttempts) {
+            return;
+        }
+        long remaining = lastFailure + lockoutSeconds(count) - now;
+        if (remaining > 0) {
+            rejections.increment();
+            throw new LoginThrottledException(AppConstants.ERROR_TOO_MANY_LOGIN_ATTEMPTS, remaining);
+        }
+    }
+
+    private void countLockout(long count) {
+        if (count >= freeAttempts) {
+            lockouts.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION);
+        // Snapshots of instances gone for longer than the window hold nothing that still counts
+        collection.deleteMany(Filters.lt("savedAt", new Date(clock.millis() - resetAfter)));
+        for (Document snapshot : collection.find()) {
+            byte[] cells = snapshot.get("cells", Binary.class).getData();
+            if (failures.merge(cells, now(), resetAfterSeconds())) {
+                log.info("Login attempt sketch merged snapshot {} taken at {}", snapshot.get("_id"), snapshot.getDate("savedAt"));
+            } else {
+                log.warn("Ignoring login attempt snapshot {} with different sketch dimensions", snapshot.get("_id"));
+            }
+        }
+        checkSaturation();
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${login-throttle.persist-interval}", initialDelayString = "${login-throttle.persist-interval}")
+    public void persist() {
+        try {
+            // One document per instance, so instances never overwrite each other's counts
+            Document snapshot = new Document("_id", snapshotId)
+                    .append("cells", new Binary(failures.snapshot()))
+                    .append("savedAt", new Date(clock.millis()));
+            mongoTemplate.getCollection(COLLECTION)
+                    .replaceOne(Filters.eq("_id", snapshotId), snapshot, new ReplaceOptions().upsert(true));
+        } catch (RuntimeException e) {
+            // Losing a snapshot only shortens lockouts after a restart
+            log.warn("Could not save login attempt sketch: {}", e.getMessage());
+        }
+    }
+
+    private long lockoutSeconds(long count) {
+        int doublings = (int) Math.min(count - freeAttempts, 30);
+        return Math.min(baseLockout << doublings, maxLockout) / 1000;
+    }
+
+    private long resetAfterSeconds() {
+        return resetAfter / 1000;
+    }
+
+    private long now() {
+        return clock.millis() / 1000;
+    }
+
+    private static String identityKey(String identity) {
+        return identity == null ? "" : identity.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Failures of one unknown identity; lastFailure in epoch seconds
+    private record Attempts(long count, long lastFailure) {
+
+        long count(long now, long window) {
+            return now - lastFailure > window ? 0 : count;
+        }
+    }
+}
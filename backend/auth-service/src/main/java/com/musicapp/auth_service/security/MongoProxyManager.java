@@ -0,0 +1,118 @@
+package com.musicapp.auth_service.security;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Bucket4j proxy manager storing bucket state in the {@code rate_limit_buckets} collection, one document per
+ * key. Updates are compare-and-swap on the serialized state, so concurrent replicas never lose a consumption;
+ * a losing writer re-reads and retries. Documents expire once untouched for {@code ttl}, by which time the
+ * bucket would be full again. The async API runs the same blocking calls on {@code asyncExecutor}.
+ */
+public class MongoProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    public static final String COLLECTION = "rate_limit_buckets";
+
+    private final MongoCollection<Document> collection;
+    private final Duration ttl;
+    private final Executor asyncExecutor;
+
+    public MongoProxyManager(MongoTemplate mongoTemplate, Duration ttl, Executor asyncExecutor) {
+        super(ClientSideConfig.getDefault());
+        this.collection = mongoTemplate.getCollection(COLLECTION);
+        this.ttl = ttl;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+        return new CompareAndSwapOperation() {
+            @Override
+            public Optional<byte[]> getStateData() {
+                return readState(key);
+            }
+
+            @Override
+            public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                return swapState(key, originalData, newData);
+            }
+        };
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+        return new AsyncCompareAndSwapOperation() {
+            @Override
+            public CompletableFuture<Optional<byte[]>> getStateData() {
+                return CompletableFuture.supplyAsync(() -> readState(key), asyncExecutor);
+            }
+
+            @Override
+            public CompletableFuture<Boolean> compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                return CompletableFuture.supplyAsync(() -> swapState(key, originalData, newData), asyncExecutor);
+            }
+        };
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String key) {
+        return CompletableFuture.runAsync(() -> removeProxy(key), asyncExecutor);
+    }
+
+    @Override
+    public void removeProxy(String key) {
+        collection.deleteOne(Filters.eq("_id", key));
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return true;
+    }
+
+    private Optional<byte[]> readState(String key) {
+        Document document = collection.find(Filters.eq("_id", key))
+                .projection(Projections.include("state"))
+                .first();
+        return Optional.ofNullable(document).map(doc -> doc.get("state", Binary.class).getData());
+    }
+
+    private boolean swapState(String key, byte[] originalData, byte[] newData) {
+        Date expiresAt = new Date(System.currentTimeMillis() + ttl.toMillis());
+        if (originalData == null) {
+            try {
+                collection.insertOne(new Document("_id", key)
+                        .append("state", new Binary(newData))
+                        .append("expiresAt", expiresAt));
+                return true;
+            } catch (MongoWriteException e) {
+                // Another replica created the bucket first
+                if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                    return false;
+                }
+                throw e;
+            }
+        }
+        return collection.updateOne(
+                Filters.and(Filters.eq("_id", key), Filters.eq("state", new Binary(originalData))),
+                Updates.combine(Updates.set("state", new Binary(newData)), Updates.set("expiresAt", expiresAt))
+        ).getModifiedCount() == 1;
+    }
+}
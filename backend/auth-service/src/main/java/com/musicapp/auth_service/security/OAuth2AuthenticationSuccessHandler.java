@@ -1,6 +1,5 @@
 package com.musicapp.auth_service.security;
 
-import com.musicapp.auth_service.dto.response.AuthResponse;
 import com.musicapp.auth_service.dto.response.OAuth2UserInfo;
 import com.musicapp.auth_service.service.OAuth2Service;
 import jakarta.servlet.http.HttpServletRequest;
@@ -45,11 +44,11 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
             userInfo.setName((String) attributes.get("name"));
             userInfo.setPicture((String) attributes.get("picture"));
 
-            // Process OAuth2 user and get auth response
-            AuthResponse authResponse = oAuth2Service.processOAuth2User(userInfo, registrationId);
+            // Process OAuth2 user and get a one-time login code
+            String code = oAuth2Service.processOAuth2User(userInfo, registrationId);
 
-            // Build redirect URL with token and user info
-            String targetUrl = frontendUrl + "/auth/callback" + "?token=" + authResponse.getToken() + "&userId=" + authResponse.getUserId() + "&email=" + URLEncoder.encode(authResponse.getEmail(), StandardCharsets.UTF_8) + "&username=" + URLEncoder.encode(authResponse.getUsername(), StandardCharsets.UTF_8) + "&profileImageUrl=" + URLEncoder.encode(authResponse.getProfileImageUrl() != null ? authResponse.getProfileImageUrl() : "", StandardCharsets.UTF_8);
+            // Redirect URLs end up in history and logs, so tokens are only handed out when the code is POSTed back
+            String targetUrl = frontendUrl + "/auth/callback" + "?code=" + code;
 
             getRedirectStrategy().sendRedirect(request, response, targetUrl);
 
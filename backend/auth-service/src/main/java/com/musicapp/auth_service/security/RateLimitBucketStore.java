@@ -0,0 +1,21 @@
+package com.musicapp.auth_service.security;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+
+/**
+ * Where rate-limit buckets live, selected with {@code rate-limit.backend}.
+ */
+public interface RateLimitBucketStore {
+
+    /**
+     * Returns the bucket for the key, creating it with {@code configuration} on first use.
+     */
+    Bucket resolve(String key, BucketConfiguration configuration);
+
+    // Buckets currently held by this instance
+    long trackedKeys();
+
+    // Runs pending evictions now instead of on the next writes; for tests and benchmarks
+    void cleanUp();
+}
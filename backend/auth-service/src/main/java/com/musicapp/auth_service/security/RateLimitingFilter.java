@@ -1,48 +1,187 @@
 package com.musicapp.auth_service.security;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapp.auth_service.config.RateLimitProperties;
 import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class RateLimitingFilter extends OncePerRequestFilter {
 
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    // Account-limited routes take small JSON bodies; larger ones are refused rather than let past the account rule
+    private static final int MAX_INSPECTED_BODY = 16 * 1024;
+    private static final List<String> ACCOUNT_FIELDS = List.of("emailOrUsername", "email", "username");
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final RateLimitBucketStore bucketStore;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, BucketConfiguration> configurations = new HashMap<>();
+    private final Map<String, RateLimitProperties.Policy> policies = new HashMap<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+    private Counter backendErrors;
+
+    @PostConstruct
+    void init() {
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            policies.put(policy.getName(), policy);
+            configurations.put(policy.getName(), BucketConfiguration.builder()
+                    .addLimit(Bandwidth.classic(policy.getCapacity(),
+                            Refill.intervally(policy.getCapacity(), Duration.ofMillis(policy.getRefillPeriod()))))
+                    .build());
+            rejections.put(policy.getName(), Counter.builder("auth.ratelimit.rejected")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry));
+        }
+        if (!policies.containsKey(properties.getDefaultPolicy())) {
+            throw new IllegalStateException("Unknown default rate limit policy: " + properties.getDefaultPolicy());
+        }
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (!policies.containsKey(route.getPolicy())) {
+                throw new IllegalStateException("Unknown rate limit policy for " + route.getPath() + ": " + route.getPolicy());
+            }
+        }
+
+        backendErrors = Counter.builder("auth.ratelimit.backend.errors")
+                .tag("failure-mode", properties.getFailureMode().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String key = getClientKey(request);
-        Bucket bucket = resolveBucket(key);
+        List<RateLimitProperties.Route> matched = matchRoutes(request);
+        if (matched.stream().anyMatch(route -> policies.get(route.getPolicy()).getKey() == RateLimitProperties.KeyType.ACCOUNT)) {
+            request = cacheBody(request);
+            if (request == null) {
+                response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                response.getWriter().write("{\"message\":\"Request body too large.\"}");
+                return;
+            }
+        }
+
+        for (RateLimitProperties.Route route : matched) {
+            RateLimitProperties.Policy policy = policies.get(route.getPolicy());
+            String key = resolveKey(policy.getKey(), request);
+            if (key == null) {
+                continue;
+            }
+
+            ConsumptionProbe probe;
+            try {
+                probe = bucketStore.resolve(policy.getName() + ":" + key, configurations.get(policy.getName()))
+                        .tryConsumeAndReturnRemaining(route.getCost());
+            } catch (RuntimeException e) {
+                backendErrors.increment();
+                log.warn("Rate limit backend unavailable ({}): {}", properties.getFailureMode(), e.getMessage());
+                if (properties.getFailureMode() == RateLimitProperties.FailureMode.OPEN) {
+                    continue;
+                }
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.getWriter().write("{\"message\":\"Service temporarily unavailable. Please try again later.\"}");
+                return;
+            }
 
-        if (bucket.tryConsume(1)) {
-            filterChain.doFilter(request, response);
-        } else {
-            response.setStatus(429);
-            response.getWriter().write("{\"message\":\"Too many requests. Please try again later.\"}");
+            if (!probe.isConsumed()) {
+                rejections.get(policy.getName()).increment();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.getNanosToWaitForRefill()));
+                response.setStatus(429);
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+                response.getWriter().write("{\"message\":\"Too many requests. Please try again later.\"}");
+                return;
+            }
         }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private List<RateLimitProperties.Route> matchRoutes(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        List<RateLimitProperties.Route> matched = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if ((route.getMethod() == null || route.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.getPath(), path)) {
+                matched.add(route);
+            }
+        }
+        if (matched.isEmpty()) {
+            RateLimitProperties.Route fallback = new RateLimitProperties.Route();
+            fallback.setPolicy(properties.getDefaultPolicy());
+            matched.add(fallback);
+        }
+        return matched;
     }
 
-    private Bucket resolveBucket(String key) {
-        return cache.computeIfAbsent(key, k -> createNewBucket());
+    private String resolveKey(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        return switch (keyType) {
+            case IP -> getClientKey(request);
+            case ACCOUNT -> getAccountKey(request);
+            case USER -> {
+                // The JWT filter runs first; anonymous callers share their IP's budget instead
+                Object claims = request.getAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE);
+                yield claims instanceof TokenClaims tokenClaims ? tokenClaims.userId() : "ip:" + getClientKey(request);
+            }
+        };
     }
 
-    private Bucket createNewBucket() {
-        // 100 requests per minute per IP
-        Bandwidth limit = Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1)));
-        return Bucket.builder().addLimit(limit).build();
+    private String getAccountKey(HttpServletRequest request) {
+        if (!(request instanceof CachedBodyRequest cached) || cached.getBody().length == 0) {
+            return null;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(cached.getBody());
+            for (String field : ACCOUNT_FIELDS) {
+                JsonNode value = body.get(field);
+                if (value != null && value.isTextual() && StringUtils.hasText(value.asText())) {
+                    return value.asText().trim().toLowerCase(Locale.ROOT);
+                }
+            }
+        } catch (IOException e) {
+            // Malformed JSON is rejected by the controller; nothing to key on here
+        }
+        return null;
+    }
+
+    // Reads whatever was sent, declared or not: chunked bodies must not get around the account rules.
+    // Returns null for bodies over the limit.
+    private HttpServletRequest cacheBody(HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > MAX_INSPECTED_BODY) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(MAX_INSPECTED_BODY + 1);
+        return body.length > MAX_INSPECTED_BODY ? null : new CachedBodyRequest(request, body);
     }
 
     private String getClientKey(HttpServletRequest request) {
@@ -59,4 +198,4 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         String path = request.getRequestURI();
         return path.startsWith("/login/oauth2/code/") || path.startsWith("/oauth2/");
     }
-}
\ No newline at end of file
+}
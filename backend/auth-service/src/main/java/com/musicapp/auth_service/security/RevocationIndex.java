@@ -0,0 +1,163 @@
+package com.musicapp.auth_service.security;
+
+import com.musicapp.auth_service.model.RevokedToken;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import com.musicapp.auth_service.repository.RevokedTokenRepository;
+import com.musicapp.auth_service.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of every revoked access token, so the JWT filter can reject them without a database read.
+ * <p>
+ * Bulk revocation (deactivation, password reset) bumps the user's token version; tokens stamped with an older
+ * version are rejected. Only users that were ever revoked are held in the map. Single tokens (logout) are
+ * added to a Bloom filter by {@code jti}; a hit is confirmed against {@code revoked_tokens}, so a false
+ * positive costs one lookup but never rejects a valid token. Both structures are rebuilt from Mongo at
+ * startup and periodically, which also drops expired entries and picks up revocations from other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevocationIndex {
+
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${revocation.bloom.expected-insertions}")
+    private long expectedInsertions;
+
+    @Value("${revocation.bloom.false-positive-rate}")
+    private double falsePositiveRate;
+
+    // Writers and rebuilds are serialized so a revocation cannot be lost while the structures are swapped;
+    // readers only touch the volatile references
+    private final Object lock = new Object();
+    private volatile Map<String, Long> tokenVersions = new ConcurrentHashMap<>();
+    private volatile BloomFilter revokedTokenIds;
+
+    private Counter versionRejections;
+    private Counter tokenRejections;
+    private Counter falsePositives;
+
+    @PostConstruct
+    void init() {
+        revokedTokenIds = BloomFilter.create(expectedInsertions, falsePositiveRate);
+
+        versionRejections = Counter.builder("auth.revocation.rejected").tag("reason", "version").register(meterRegistry);
+        tokenRejections = Counter.builder("auth.revocation.rejected").tag("reason", "token").register(meterRegistry);
+        falsePositives = Counter.builder("auth.revocation.bloom.false_positives").register(meterRegistry);
+        Gauge.builder("auth.revocation.bloom.expected_fpp", this, index -> index.revokedTokenIds.expectedFpp())
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.bloom.size", this, index -> index.revokedTokenIds.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.bloom.entries", this, index -> index.revokedTokenIds.insertions())
+                .register(meterRegistry);
+        Gauge.builder("auth.revocation.users", this, index -> index.tokenVersions.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns {@code true} if the token was revoked individually or belongs to a revoked token generation.
+     */
+    public boolean isRevoked(TokenClaims claims) {
+        Long currentVersion = tokenVersions.get(claims.userId());
+        if (currentVersion != null && claims.tokenVersion() < currentVersion) {
+            versionRejections.increment();
+            return true;
+        }
+
+        if (claims.tokenId() == null || !revokedTokenIds.mightContain(claims.tokenId())) {
+            return false;
+        }
+        if (revokedTokenRepository.existsById(claims.tokenId())) {
+            tokenRejections.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Invalidates every access token issued to the user so far.
+     *
+     * @return the new token version, to be stamped on tokens issued from now on
+     */
+    public long revokeUser(String userId) {
+        synchronized (lock) {
+            Query query = Query.query(Criteria.where("_id").is(userId));
+            query.fields().include("tokenVersion");
+
+            User updated = mongoTemplate.findAndModify(
+                    query,
+                    new Update().inc("tokenVersion", 1),
+                    FindAndModifyOptions.options().returnNew(true),
+                    User.class);
+            if (updated == null) {
+                return 0;
+            }
+            tokenVersions.merge(userId, updated.getTokenVersion(), Math::max);
+            return updated.getTokenVersion();
+        }
+    }
+
+    /**
+     * Invalidates a single access token, e.g. on logout.
+     */
+    public void revokeToken(TokenClaims claims) {
+        if (claims.tokenId() == null) {
+            // Issued before tokens carried a jti; the only way to reject it is to revoke the whole generation
+            revokeUser(claims.userId());
+            return;
+        }
+        synchronized (lock) {
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.expiresAt(), ZoneId.systemDefault());
+            revokedTokenRepository.save(new RevokedToken(claims.tokenId(), claims.userId(), expiresAt));
+            revokedTokenIds.put(claims.tokenId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${revocation.rebuild-interval}", initialDelayString = "${revocation.rebuild-interval}")
+    public void rebuild() {
+        synchronized (lock) {
+            Map<String, Long> versions = new ConcurrentHashMap<>();
+            for (UserView user : userRepository.findViewByTokenVersionGreaterThan(0)) {
+                versions.put(user.id(), user.tokenVersion());
+            }
+
+            List<RevokedToken> revoked = revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now());
+            // Leave headroom so the false-positive rate holds until the next rebuild
+            BloomFilter filter = BloomFilter.create(Math.max(expectedInsertions, revoked.size() * 2L), falsePositiveRate);
+            revoked.forEach(token -> filter.put(token.getId()));
+
+            tokenVersions = versions;
+            revokedTokenIds = filter;
+            log.info("Revocation index rebuilt: {} revoked users, {} revoked tokens", versions.size(), revoked.size());
+        }
+    }
+}
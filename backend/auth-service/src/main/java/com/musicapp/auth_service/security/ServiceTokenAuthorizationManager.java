@@ -0,0 +1,36 @@
+package com.musicapp.auth_service.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.function.Supplier;
+
+/**
+ * Admits service-to-service calls (e.g. auth-client polling the revocation feed) that present the shared
+ * {@code revocation.feed.service-token} in {@value #HEADER}. With no token configured every call is refused.
+ */
+@Component
+public class ServiceTokenAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    public static final String HEADER = "X-Service-Token";
+
+    private final byte[] serviceToken;
+
+    public ServiceTokenAuthorizationManager(@Value("${revocation.feed.service-token}") String serviceToken) {
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        String presented = context.getRequest().getHeader(HEADER);
+        boolean granted = serviceToken.length > 0 && presented != null
+                && MessageDigest.isEqual(serviceToken, presented.getBytes(StandardCharsets.UTF_8));
+        return new AuthorizationDecision(granted);
+    }
+}
@@ -0,0 +1,12 @@
+package com.musicapp.auth_service.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified access token. Produced once per request by {@link JwtUtil#parseToken(String)}.
+ * {@code tokenId} (the {@code jti}) is {@code null} and {@code tokenVersion} is 0 for tokens issued before
+ * revocation support.
+ */
+public record TokenClaims(String userId, String email, Instant issuedAt, Instant expiresAt,
+                          String tokenId, long tokenVersion) {
+}
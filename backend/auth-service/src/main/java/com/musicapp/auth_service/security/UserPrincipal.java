@@ -0,0 +1,26 @@
+package com.musicapp.auth_service.security;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.UserView;
+
+/**
+ * Lean, immutable identity of an authenticated caller. This is what the JWT filter caches and places in the
+ * security context, instead of the full {@link com.musicapp.auth_service.model.User} document.
+ * <p>
+ * It deliberately has no token version. The JWT filter checks a token's version against {@link RevocationIndex},
+ * which is updated the moment a version is bumped; a copy cached here could lag behind it until evicted.
+ */
+public record UserPrincipal(String id, String username, AccountStatus status, String provider, String role) {
+
+    public static UserPrincipal from(UserView user) {
+        String role = AppConstants.ADMIN_USERNAME.equalsIgnoreCase(user.username())
+                ? AppConstants.ROLE_ADMIN
+                : AppConstants.ROLE_USER;
+        return new UserPrincipal(user.id(), user.username(), user.status(), user.provider(), role);
+    }
+
+    public boolean isAdmin() {
+        return AppConstants.ROLE_ADMIN.equals(role);
+    }
+}
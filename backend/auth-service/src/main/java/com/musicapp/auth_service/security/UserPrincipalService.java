@@ -0,0 +1,33 @@
+package com.musicapp.auth_service.security;
+
+import com.musicapp.auth_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class UserPrincipalService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Returns the principal for the given user id, or {@code null} if the user no longer exists.
+     * Misses are not cached so a freshly registered user is picked up on the next request.
+     */
+    @Cacheable(value = "principals", key = "#userId", unless = "#result == null")
+    public UserPrincipal loadPrincipal(String userId) {
+        return userRepository.findViewById(userId)
+                .map(UserPrincipal::from)
+                .orElse(null);
+    }
+
+    /**
+     * Drops every cached view of the user. Call this from code paths that change status, provider or
+     * identity without going through an annotated service method.
+     */
+    @CacheEvict(value = {"users", "principals"}, key = "#userId")
+    public void evict(String userId) {
+    }
+}
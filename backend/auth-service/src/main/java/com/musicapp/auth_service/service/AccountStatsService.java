@@ -0,0 +1,217 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.dto.response.AccountStatsResponse;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Account counts for the admin dashboard, served from memory so a dashboard load never touches {@code users}.
+ * <p>
+ * Counts by status and provider, sign-ups per day and users per last-login day over the past {@code days} come
+ * from a single {@code $facet} aggregation, run at startup and every {@code refresh-interval}. In between,
+ * sign-ups, logins and status changes on this instance adjust the counts as they happen; changes made on other
+ * instances, or racing with a refresh, show up after the next one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountStatsService {
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account-stats.days}")
+    private int days;
+
+    private final Object refreshLock = new Object();
+    private volatile Counts counts;
+
+    private Timer refreshTimer;
+
+    @PostConstruct
+    void init() {
+        refreshTimer = Timer.builder("auth.stats.refresh").register(meterRegistry);
+    }
+
+    /**
+     * @throws ServiceBusyException until the first refresh completes
+     */
+    public AccountStatsResponse getStats() {
+        Counts current = counts;
+        if (current == null) {
+            throw new ServiceBusyException(AppConstants.ERROR_SERVICE_BUSY);
+        }
+        LocalDate from = LocalDate.now().minusDays(days - 1L);
+        return new AccountStatsResponse(
+                current.byStatus.values().stream().mapToLong(Long::longValue).sum(),
+                new TreeMap<>(current.byStatus),
+                new TreeMap<>(current.byProvider),
+                perDay(current.signups, from),
+                perDay(current.logins, from),
+                current.refreshedAt);
+    }
+
+    /**
+     * Counts an account created on this instance; call after the insert succeeded.
+     */
+    public void recordSignup(AccountStatus status, String provider) {
+        Counts current = counts;
+        if (current == null) {
+            return;
+        }
+        adjust(current.byStatus, key(status), 1);
+        adjust(current.byProvider, key(provider), 1);
+        adjust(current.signups, LocalDate.now(), 1);
+    }
+
+    /**
+     * Moves an account between statuses; call after the update succeeded.
+     */
+    public void recordStatusChange(AccountStatus from, AccountStatus to) {
+        Counts current = counts;
+        if (current == null || from == to) {
+            return;
+        }
+        adjust(current.byStatus, key(from), -1);
+        adjust(current.byStatus, key(to), 1);
+    }
+
+    /**
+     * Moves an account between providers, e.g. when a local account is linked to an OAuth login.
+     */
+    public void recordProviderChange(String from, String to) {
+        Counts current = counts;
+        if (current == null || key(from).equals(key(to))) {
+            return;
+        }
+        adjust(current.byProvider, key(from), -1);
+        adjust(current.byProvider, key(to), 1);
+    }
+
+    /**
+     * Moves a user from the day of their previous login to the day of this one.
+     *
+     * @param previousLogin the user's last login before this one, or {@code null} for a first login
+     */
+    public void recordLogin(LocalDateTime previousLogin, LocalDateTime login) {
+        Counts current = counts;
+        LocalDate day = login.toLocalDate();
+        if (current == null || (previousLogin != null && previousLogin.toLocalDate().equals(day))) {
+            return;
+        }
+        if (previousLogin != null) {
+            adjust(current.logins, previousLogin.toLocalDate(), -1);
+        }
+        adjust(current.logins, day, 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${account-stats.refresh-interval}", initialDelayString = "${account-stats.refresh-interval}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            try {
+                counts = refreshTimer.recordCallable(this::load);
+                log.info("Account stats refreshed: {} users", counts.byStatus.values().stream().mapToLong(Long::longValue).sum());
+            } catch (Exception e) {
+                // Keep serving the previous counts (or 503, before the first refresh)
+                log.error("Could not refresh account stats: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Counts load() {
+        LocalDateTime since = LocalDate.now().minusDays(days - 1L).atStartOfDay();
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation
+                .facet(Aggregation.group("status").count().as("count")).as("byStatus")
+                .and(Aggregation.group("provider").count().as("count")).as("byProvider")
+                .and(perDay("createdAt", since)).as("signupsPerDay")
+                .and(perDay("lastLogin", since)).as("loginsPerDay"));
+
+        Document facets = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(User.class), Document.class)
+                .getUniqueMappedResult();
+        Counts loaded = new Counts(LocalDateTime.now());
+        if (facets != null) {
+            facets.getList("byStatus", Document.class).forEach(group -> loaded.byStatus.put(key(group.get("_id")), count(group)));
+            facets.getList("byProvider", Document.class).forEach(group -> loaded.byProvider.put(key(group.get("_id")), count(group)));
+            facets.getList("signupsPerDay", Document.class).forEach(group -> loaded.signups.put(LocalDate.parse(group.getString("_id")), count(group)));
+            facets.getList("loginsPerDay", Document.class).forEach(group -> loaded.logins.put(LocalDate.parse(group.getString("_id")), count(group)));
+        }
+        return loaded;
+    }
+
+    // Buckets by calendar day in the server's zone, matching how LocalDateTime fields are written and read
+    private static AggregationOperation[] perDay(String field, LocalDateTime since) {
+        return new AggregationOperation[]{
+                Aggregation.match(Criteria.where(field).gte(since)),
+                Aggregation.project().and(DateOperators.DateToString.dateOf(field)
+                        .toString("%Y-%m-%d")
+                        .withTimezone(DateOperators.Timezone.valueOf(TimeZone.getDefault().getID()))).as("day"),
+                Aggregation.group("day").count().as("count")
+        };
+    }
+
+    private static Map<String, Long> perDay(ConcurrentSkipListMap<LocalDate, Long> counts, LocalDate from) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.tailMap(from).forEach((day, count) -> result.put(day.toString(), count));
+        return result;
+    }
+
+    private static <K> void adjust(Map<K, Long> counts, K key, long delta) {
+        // Dropped at zero so a decrement racing a refresh never leaves a negative bucket behind
+        counts.compute(key, (k, count) -> {
+            long updated = (count == null ? 0 : count) + delta;
+            return updated > 0 ? updated : null;
+        });
+    }
+
+    private static String key(Object value) {
+        return value == null ? UNKNOWN : value.toString();
+    }
+
+    private static long count(Document group) {
+        return ((Number) group.get("count")).longValue();
+    }
+
+    private static final class Counts {
+
+        private final Map<String, Long> byStatus = new ConcurrentHashMap<>();
+        private final Map<String, Long> byProvider = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<LocalDate, Long> signups = new ConcurrentSkipListMap<>();
+        private final ConcurrentSkipListMap<LocalDate, Long> logins = new ConcurrentSkipListMap<>();
+        private final LocalDateTime refreshedAt;
+
+        private Counts(LocalDateTime refreshedAt) {
+            this.refreshedAt = refreshedAt;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.dto.request.AdminUserFilter;
+import com.musicapp.auth_service.dto.response.AdminUserResponse;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.mapper.UserMapper;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import com.musicapp.auth_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin listing of users, newest first, one page at a time.
+ * <p>
+ * Pages are keyset-paginated on {@code _id}: the cursor is the last id of the previous page, so a page costs
+ * the same whether it is the first or the millionth, and users signing up meanwhile do not shift later pages.
+ * Only the fields the admin view shows are read, never credentials. Totals are counted separately and cached
+ * per filter, since counting matches is the one part whose cost grows with the collection.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminUserService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SEARCH_RESULTS = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final UserSearchIndex userSearchIndex;
+
+    public record Page(List<AdminUserResponse> users, String nextCursor) {
+    }
+
+    public void requireAdmin(String userId) {
+        UserView admin = userRepository.findViewById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+
+        if (admin.username() == null || !AppConstants.ADMIN_USERNAME.equalsIgnoreCase(admin.username())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Admin access required");
+        }
+    }
+
+    public Page listUsers(AdminUserFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Criteria> criteria = criteria(filter);
+        if (cursor != null) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+            criteria.add(Criteria.where("_id").lt(new ObjectId(cursor)));
+        }
+
+        // One extra row tells whether another page follows without a count
+        Query query = Query.query(combine(criteria))
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(pageSize + 1);
+        query.fields().include("email", "username", "profileImageUrl", "status", "provider", "createdAt", "lastLogin");
+        List<UserView> users = mongoTemplate.find(query, UserView.class, mongoTemplate.getCollectionName(User.class));
+
+        boolean hasMore = users.size() > pageSize;
+        List<UserView> page = hasMore ? users.subList(0, pageSize) : users;
+        return new Page(
+                page.stream().map(userMapper::toAdminUserResponse).toList(),
+                hasMore ? page.get(page.size() - 1).id() : null);
+    }
+
+    /**
+     * Users whose username or email matches {@code query}, best match first. Matching and ranking happen in
+     * {@link UserSearchIndex}; Mongo is only asked for the rows of the hits, by id.
+     */
+    public List<AdminUserResponse> search(String query, int limit) {
+        if (!userSearchIndex.isReady()) {
+            throw new ServiceBusyException(AppConstants.ERROR_SERVICE_BUSY);
+        }
+        List<String> ids = userSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Query rows = Query.query(Criteria.where("_id").in(ids.stream().map(AdminUserService::toId).toList()));
+        rows.fields().include("email", "username", "profileImageUrl", "status", "provider", "createdAt", "lastLogin");
+        Map<String, UserView> byId = mongoTemplate.find(rows, UserView.class, mongoTemplate.getCollectionName(User.class))
+                .stream()
+                .collect(Collectors.toMap(UserView::id, Function.identity()));
+        return ids.stream()
+                .filter(byId::containsKey)
+                .map(id -> userMapper.toAdminUserResponse(byId.get(id)))
+                .toList();
+    }
+
+    @Cacheable(value = "adminUserCounts", key = "#filter")
+    public long countUsers(AdminUserFilter filter) {
+        List<Criteria> criteria = criteria(filter);
+        // Unfiltered, the collection metadata already knows the answer
+        return criteria.isEmpty()
+                ? mongoTemplate.estimatedCount(User.class)
+                : mongoTemplate.count(Query.query(combine(criteria)), User.class);
+    }
+
+    private static List<Criteria> criteria(AdminUserFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(filter.getStatus()));
+        }
+        if (StringUtils.hasText(filter.getProvider())) {
+            criteria.add(Criteria.where("provider").is(filter.getProvider()));
+        }
+        if (filter.getCreatedFrom() != null) {
+            criteria.add(Criteria.where("createdAt").gte(filter.getCreatedFrom()));
+        }
+        if (filter.getCreatedTo() != null) {
+            criteria.add(Criteria.where("createdAt").lt(filter.getCreatedTo()));
+        }
+        // Anchored, escaped prefixes are range scans on the unique indexes
+        if (StringUtils.hasText(filter.getUsernamePrefix())) {
+            criteria.add(Criteria.where("username").regex("^" + escape(filter.getUsernamePrefix())));
+        }
+        if (StringUtils.hasText(filter.getEmailPrefix())) {
+            criteria.add(Criteria.where("email").regex("^" + escape(filter.getEmailPrefix())));
+        }
+        return criteria;
+    }
+
+    private static Criteria combine(List<Criteria> criteria) {
+        return criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria);
+    }
+
+    // Ids generated by Mongo are stored as ObjectIds; the index only knows their hex form
+    private static Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static String escape(String literal) {
+        return literal.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0");
+    }
+}
@@ -4,6 +4,7 @@ import com.musicapp.auth_service.constants.AppConstants;
 import com.musicapp.auth_service.dto.request.LoginRequest;
 import com.musicapp.auth_service.dto.request.RegisterRequest;
 import com.musicapp.auth_service.dto.response.AuthResponse;
+import com.musicapp.auth_service.exception.custom.AccountDeactivatedException;
 import com.musicapp.auth_service.exception.custom.EmailAlreadyExistsException;
 import com.musicapp.auth_service.exception.custom.InvalidCredentialsException;
 import com.musicapp.auth_service.exception.custom.UserNotFoundException;
@@ -11,34 +12,61 @@ import com.musicapp.auth_service.exception.custom.UsernameAlreadyExistsException
 import com.musicapp.auth_service.mapper.UserMapper;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import com.musicapp.auth_service.security.BoundedPasswordEncoder;
 import com.musicapp.auth_service.security.JwtUtil;
+import com.musicapp.auth_service.security.LoginAttemptTracker;
+import com.musicapp.auth_service.security.RevocationIndex;
+import com.musicapp.auth_service.security.TokenClaims;
+import com.musicapp.auth_service.util.DuplicateKeys;
 import com.musicapp.auth_service.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final BoundedPasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final EmailService emailService;
     private final UserMapper userMapper;
     private final ValidationUtil validationUtil;  // ADD
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationIndex revocationIndex;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final AccountNameIndex accountNameIndex;
+    private final UserSearchIndex userSearchIndex;
+    private final AccountStatsService accountStatsService;
+    private final OAuthLoginCodeService oAuthLoginCodeService;
 
     @Value("${password.reset.grace.period}")
     private Long gracePeriod;
 
-    @CacheEvict(value = "users", key = "#result.userId")
+    @CacheEvict(value = {"users", "principals"}, key = "#result.userId")
     public AuthResponse login(LoginRequest request) {
-        User user = userRepository.findByEmailOrUsername(request.getEmailOrUsername(), request.getEmailOrUsername()).orElseThrow(() -> new InvalidCredentialsException(AppConstants.ERROR_INVALID_CREDENTIALS));
+        // Locked-out identities that match no account are turned away before the lookup
+        loginAttemptTracker.checkAllowed(request.getEmailOrUsername());
+
+        User user = userRepository.findByEmailOrUsername(request.getEmailOrUsername(), request.getEmailOrUsername()).orElseThrow(() -> {
+            loginAttemptTracker.recordFailure(request.getEmailOrUsername());
+            return new InvalidCredentialsException(AppConstants.ERROR_INVALID_CREDENTIALS);
+        });
+
+        // Counted per account from here on, so its email and username share one failure budget
+        loginAttemptTracker.checkAccountAllowed(user.getId());
 
         // REPLACE validation WITH:
         validationUtil.validateUserCanLogin(user);
@@ -49,79 +77,183 @@ public class AuthService {
         }
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            loginAttemptTracker.recordAccountFailure(user.getId());
             throw new InvalidCredentialsException(AppConstants.ERROR_INVALID_CREDENTIALS);
         }
+        loginAttemptTracker.recordAccountSuccess(user.getId());
+
+        // Migrate hashes with an older algorithm or cost while the plain password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.updatePassword(user.getId(), user.getPassword());
+        }
 
         // Cancel deactivation if within grace period
         if (user.getStatus() == AccountStatus.DEACTIVATION_PENDING) {
             LocalDateTime gracePeriodEnd = user.getDeactivationRequestedAt().plusSeconds(gracePeriod / 1000);
-            if (LocalDateTime.now().isBefore(gracePeriodEnd)) {
+            AccountStatus restoredStatus = user.getStatus().isVerified() ? AccountStatus.ACTIVE : AccountStatus.PENDING_VERIFICATION;
+            if (LocalDateTime.now().isBefore(gracePeriodEnd) && userRepository.cancelDeactivation(user.getId(), restoredStatus)) {
+                accountStatsService.recordStatusChange(AccountStatus.DEACTIVATION_PENDING, restoredStatus);
                 user.setDeactivationRequestedAt(null);
-                user.setStatus(user.getStatus().isVerified() ? AccountStatus.ACTIVE : AccountStatus.PENDING_VERIFICATION);
+                user.setStatus(restoredStatus);
             }
         }
 
+        accountStatsService.recordLogin(lastLoginBuffer.latest(user.getId(), user.getLastLogin()), LocalDateTime.now());
         user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        lastLoginBuffer.record(user.getId(), user.getLastLogin());
 
-        String token = jwtUtil.generateToken(user.getId(), user.getEmail());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getTokenVersion());
 
-        return userMapper.toAuthResponse(user, token);
+        return userMapper.toAuthResponse(user, token, refreshTokenService.issue(user.getId()));
     }
 
     @CacheEvict(value = "users", key = "#result.userId")
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new EmailAlreadyExistsException(AppConstants.ERROR_EMAIL_EXISTS);
-        }
-
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new UsernameAlreadyExistsException(AppConstants.ERROR_USERNAME_EXISTS);
+        // Hash on the hashing pool while the availability query runs, so its latency hides behind the hash
+        CompletableFuture<String> encodedPassword = passwordEncoder.encodeAsync(request.getPassword());
+        // Names the Bloom filter has never seen are free, so most sign-ups skip the query altogether
+        if (accountNameIndex.mightHaveEmail(request.getEmail()) || accountNameIndex.mightHaveUsername(request.getUsername())) {
+            try {
+                userRepository.findTakenField(request.getEmail(), request.getUsername()).ifPresent(field -> {
+                    throw duplicateOf(field);
+                });
+            } catch (RuntimeException e) {
+                encodedPassword.cancel(false);
+                throw e;
+            }
         }
 
         User user = new User();
         user.setEmail(request.getEmail());
         user.setUsername(request.getUsername());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(await(encodedPassword));
         user.setCreatedAt(LocalDateTime.now());
         user.setStatus(AccountStatus.PENDING_VERIFICATION);
         user.setProvider(AppConstants.PROVIDER_LOCAL);
 
-        user = userRepository.save(user);
+        // The pre-check only fails fast; the unique indexes decide races between concurrent sign-ups
+        try {
+            user = userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            String index = DuplicateKeys.violatedIndex(e);
+            if (index.equals("email") || index.equals("username")) {
+                throw duplicateOf(index);
+            }
+            throw e;
+        }
+        accountNameIndex.addAccount(user.getEmail(), user.getUsername());
+        userSearchIndex.put(user.getId(), user.getUsername(), user.getEmail());
+        accountStatsService.recordSignup(user.getStatus(), user.getProvider());
+
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getTokenVersion());
+
+        return userMapper.toAuthResponse(user, token, refreshTokenService.issue(user.getId()));
+    }
+
+    /**
+     * Exchanges a refresh token for a new access/refresh token pair. This is the only place a session
+     * re-checks the database, once per access token lifetime.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        UserView user = userRepository.findViewById(rotation.userId()).orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
+        if (!user.status().canLogin()) {
+            refreshTokenService.revokeAll(user.id());
+            throw new AccountDeactivatedException(AppConstants.ERROR_ACCOUNT_DEACTIVATED);
+        }
+
+        String token = jwtUtil.generateToken(user.id(), user.email(), user.tokenVersion());
+
+        return userMapper.toAuthResponse(user, token, rotation.refreshToken());
+    }
+
+    /**
+     * Completes an OAuth2 login by exchanging the one-time code from the redirect for tokens.
+     */
+    public AuthResponse exchangeOAuthLoginCode(String code) {
+        String userId = oAuthLoginCodeService.redeem(code);
 
-        String token = jwtUtil.generateToken(user.getId(), user.getEmail());
+        UserView user = userRepository.findViewById(userId).orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
+        if (!user.status().canLogin()) {
+            throw new AccountDeactivatedException(AppConstants.ERROR_ACCOUNT_DEACTIVATED);
+        }
 
-        return userMapper.toAuthResponse(user, token);
+        String token = jwtUtil.generateToken(user.id(), user.email(), user.tokenVersion());
+
+        return userMapper.toAuthResponse(user, token, refreshTokenService.issue(user.id()));
     }
 
-    @CacheEvict(value = "users", key = "#userId")
+    /**
+     * Revokes the presented access token and, if given, the refresh token family it was issued with.
+     */
+    public void logout(TokenClaims claims, String refreshToken) {
+        revocationIndex.revokeToken(claims);
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    @CacheEvict(value = {"users", "principals"}, key = "#userId")
     public void requestAccountDeactivation(String userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
 
         // REPLACE validation WITH:
         validationUtil.validateUserActive(user);
 
-        user.setDeactivationRequestedAt(LocalDateTime.now());
-        user.setStatus(AccountStatus.DEACTIVATION_PENDING);
-        userRepository.save(user);
+        if (!userRepository.requestDeactivation(userId, LocalDateTime.now())) {
+            throw new AccountDeactivatedException(AppConstants.ERROR_ACCOUNT_DEACTIVATED);
+        }
+        accountStatsService.recordStatusChange(user.getStatus(), AccountStatus.DEACTIVATION_PENDING);
+        // Signed-in sessions end here; logging in again within the grace period cancels the request
+        revocationIndex.revokeUser(userId);
+        refreshTokenService.revokeAll(userId);
         emailService.sendAccountDeactivationEmail(user.getEmail(), user.getUsername());
     }
 
-    @CacheEvict(value = "users", key = "#userId")
+    @CacheEvict(value = {"users", "principals"}, key = "#userId")
     public void cancelAccountDeactivation(String userId) {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
 
         if (user.getDeactivationRequestedAt() == null) {
             throw new RuntimeException(AppConstants.ERROR_NO_DEACTIVATION_REQUEST);
         }
-        user.setStatus(user.getStatus().isVerified() ? AccountStatus.ACTIVE : AccountStatus.PENDING_VERIFICATION);
-        user.setDeactivationRequestedAt(null);
-        userRepository.save(user);
+        AccountStatus restoredStatus = user.getStatus().isVerified() ? AccountStatus.ACTIVE : AccountStatus.PENDING_VERIFICATION;
+        if (!userRepository.cancelDeactivation(userId, restoredStatus)) {
+            throw new RuntimeException(AppConstants.ERROR_NO_DEACTIVATION_REQUEST);
+        }
+        accountStatsService.recordStatusChange(AccountStatus.DEACTIVATION_PENDING, restoredStatus);
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return !accountNameIndex.mightHaveUsername(username) || !userRepository.existsByUsername(username);
     }
 
     @Cacheable(value = "users", key = "#userId")
-    public User getUserById(String userId) {
-        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
+    public UserView getUserById(String userId) {
+        return userRepository.findViewById(userId).orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
+    }
+
+    private static RuntimeException duplicateOf(String field) {
+        return field.equals("username")
+                ? new UsernameAlreadyExistsException(AppConstants.ERROR_USERNAME_EXISTS)
+                : new EmailAlreadyExistsException(AppConstants.ERROR_EMAIL_EXISTS);
+    }
+
+    private static String await(CompletableFuture<String> encodedPassword) {
+        try {
+            return encodedPassword.get();
+        } catch (InterruptedException e) {
+            encodedPassword.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
     }
 
 }
@@ -6,6 +6,7 @@ import com.musicapp.auth_service.exception.custom.UserNotFoundException;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.UserPrincipalService;
 import com.musicapp.auth_service.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -18,11 +19,13 @@ public class EmailVerificationService {
     private final EmailService emailService;
     private final TokenService tokenService;
     private final ValidationUtil validationUtil;
+    private final UserPrincipalService userPrincipalService;
+    private final AccountStatsService accountStatsService;
 
 
     public void sendVerificationEmail(User user) {
         String verificationToken = tokenService.generateEmailVerificationToken(user);
-        userRepository.save(user);
+        userRepository.setEmailVerificationToken(user.getId(), verificationToken, user.getEmailVerificationTokenExpiry());
 
         emailService.sendEmailVerification(user.getEmail(), verificationToken, user.getUsername());
     }
@@ -36,9 +39,10 @@ public class EmailVerificationService {
 
         validationUtil.validateUserNotVerified(user);
 
-        user.setStatus(AccountStatus.ACTIVE);
-        tokenService.clearEmailVerificationToken(user);
-        userRepository.save(user);
+        String userId = userRepository.verifyEmail(token)
+                .orElseThrow(() -> new RuntimeException("Invalid verification token"));
+        userPrincipalService.evict(userId);
+        accountStatsService.recordStatusChange(AccountStatus.PENDING_VERIFICATION, AccountStatus.ACTIVE);
     }
 
     public void resendVerificationEmail(String email) {
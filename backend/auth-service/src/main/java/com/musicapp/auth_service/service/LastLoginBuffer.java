@@ -0,0 +1,136 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for {@code lastLogin}, keeping the write off the login path.
+ * <p>
+ * Logins are coalesced per user (latest wins) and flushed every {@code last-login.flush-interval} as one bulk
+ * write, so {@code lastLogin} lags by at most that interval. The bulk write only ever moves the field forward,
+ * so a late flush cannot overwrite a newer value. If more than {@code last-login.max-pending} users are waiting,
+ * the login that crosses the limit flushes inline, unless a flush is already running or one failed within the
+ * last flush interval: while Mongo is down, logins must not queue up behind a write that is bound to time out.
+ * Entries of a failed flush are put back for the next one. Once {@code last-login.capacity} users are waiting,
+ * logins of further users are dropped (and counted) instead of growing the buffer; users already buffered keep
+ * being updated. The buffer is flushed at shutdown, so only a crash loses its contents.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginBuffer {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${last-login.max-pending}")
+    private int maxPending;
+
+    @Value("${last-login.capacity}")
+    private int capacity;
+
+    @Value("${last-login.flush-interval}")
+    private long flushInterval;
+
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long lastFailedFlush;
+
+    private Timer flushTimer;
+    private Counter flushedUsers;
+    private Counter failedFlushes;
+    private Counter droppedUsers;
+
+    @PostConstruct
+    void init() {
+        flushTimer = Timer.builder("auth.lastlogin.flush").register(meterRegistry);
+        flushedUsers = Counter.builder("auth.lastlogin.flushed").register(meterRegistry);
+        failedFlushes = Counter.builder("auth.lastlogin.flush.failures").register(meterRegistry);
+        droppedUsers = Counter.builder("auth.lastlogin.dropped").register(meterRegistry);
+        Gauge.builder("auth.lastlogin.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void record(String userId, LocalDateTime lastLogin) {
+        if (pending.size() >= capacity && !pending.containsKey(userId)) {
+            droppedUsers.increment();
+            return;
+        }
+        pending.merge(userId, lastLogin, (previous, current) -> current.isAfter(previous) ? current : previous);
+        if (pending.size() >= maxPending
+                && System.currentTimeMillis() - lastFailedFlush >= flushInterval
+                && flushLock.tryLock()) {
+            try {
+                flushPending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The user's latest login, counting one still waiting here: {@code stored}, read from Mongo, lags behind it
+     * by up to a flush interval.
+     */
+    public LocalDateTime latest(String userId, LocalDateTime stored) {
+        LocalDateTime buffered = userId == null ? null : pending.get(userId);
+        if (buffered == null) {
+            return stored;
+        }
+        return stored != null && stored.isAfter(buffered) ? stored : buffered;
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${last-login.flush-interval}", initialDelayString = "${last-login.flush-interval}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Removing entry by entry means a login recorded meanwhile is either in this batch or stays for the next
+        Map<String, LocalDateTime> batch = new HashMap<>();
+        for (String userId : pending.keySet()) {
+            LocalDateTime lastLogin = pending.remove(userId);
+            if (lastLogin != null) {
+                batch.put(userId, lastLogin);
+            }
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            userRepository.recordLastLogins(batch);
+            flushedUsers.increment(batch.size());
+        } catch (RuntimeException e) {
+            lastFailedFlush = System.currentTimeMillis();
+            failedFlushes.increment();
+            batch.forEach((userId, lastLogin) -> pending.merge(userId, lastLogin,
+                    (newer, older) -> newer.isAfter(older) ? newer : older));
+            log.warn("Could not flush {} lastLogin updates, retrying next cycle: {}", batch.size(), e.getMessage());
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+}
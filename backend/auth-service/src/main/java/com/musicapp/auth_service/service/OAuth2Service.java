@@ -1,14 +1,14 @@
 package com.musicapp.auth_service.service;
 
-import com.musicapp.auth_service.constants.AppConstants;
-import com.musicapp.auth_service.dto.response.AuthResponse;
 import com.musicapp.auth_service.dto.response.OAuth2UserInfo;
-import com.musicapp.auth_service.mapper.UserMapper;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
 import com.musicapp.auth_service.repository.UserRepository;
-import com.musicapp.auth_service.security.JwtUtil;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import com.musicapp.auth_service.security.UserPrincipalService;
+import com.musicapp.auth_service.util.DuplicateKeys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -17,17 +17,33 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 public class OAuth2Service {
 
-    private final UserRepository userRepository;
-    private final JwtUtil jwtUtil;
-    private final UserMapper userMapper;
+    // Losing the race for a generated name this many times in a row means something else is wrong
+    private static final int MAX_USERNAME_ATTEMPTS = 3;
 
-    public AuthResponse processOAuth2User(OAuth2UserInfo userInfo, String provider) {
-        User user = userRepository.findByProviderAndProviderId(provider, userInfo.getId())
-                .orElseGet(() -> userRepository.findByEmail(userInfo.getEmail())
+    private final UserRepository userRepository;
+    private final UserPrincipalService userPrincipalService;
+    private final LastLoginBuffer lastLoginBuffer;
+    private final OAuthLoginCodeService oAuthLoginCodeService;
+    private final AccountNameIndex accountNameIndex;
+    private final UsernameGenerator usernameGenerator;
+    private final UserSearchIndex userSearchIndex;
+    private final AccountStatsService accountStatsService;
+
+    /**
+     * Signs in, links or creates the account behind an OAuth2 login.
+     *
+     * @return a single-use code the frontend exchanges for tokens through {@code /api/auth/oauth2/token}
+     */
+    public String processOAuth2User(OAuth2UserInfo userInfo, String provider) {
+        User linkedUser = userRepository.findByProviderAndProviderId(provider, userInfo.getId()).orElse(null);
+        User user = linkedUser != null ? linkedUser : userRepository.findByEmail(userInfo.getEmail())
                         .map(existingUser -> {
+                            // Counted before the update below; a failed update is corrected by the next stats refresh
+                            accountStatsService.recordProviderChange(existingUser.getProvider(), provider);
                             existingUser.setProvider(provider);
                             existingUser.setProviderId(userInfo.getId());
                             if (existingUser.getStatus() == AccountStatus.PENDING_VERIFICATION) {
+                                accountStatsService.recordStatusChange(AccountStatus.PENDING_VERIFICATION, AccountStatus.ACTIVE);
                                 existingUser.setStatus(AccountStatus.ACTIVE);
                             }
                             return existingUser;
@@ -41,43 +57,58 @@ public class OAuth2Service {
                             newUser.setCreatedAt(LocalDateTime.now());
                             newUser.setStatus(AccountStatus.ACTIVE);
 
-                            String username = userInfo.getEmail().split("@")[0];
-                            String uniqueUsername = generateUniqueUsername(username);
-                            newUser.setUsername(uniqueUsername);
+                            newUser.setUsername(usernameGenerator.generate(baseUsername(userInfo)));
 
                             return newUser;
-                        }));
+                        });
 
-        user.setLastLogin(LocalDateTime.now());
-        if (userInfo.getPicture() != null) {
+        boolean pictureChanged = userInfo.getPicture() != null && !userInfo.getPicture().equals(user.getProfileImageUrl());
+        if (pictureChanged) {
             user.setProfileImageUrl(userInfo.getPicture());
         }
+        accountStatsService.recordLogin(lastLoginBuffer.latest(user.getId(), user.getLastLogin()), LocalDateTime.now());
+        user.setLastLogin(LocalDateTime.now());
 
-        user = userRepository.save(user);
-
-        String token = jwtUtil.generateToken(user.getId(), user.getEmail());
-
-        return userMapper.toAuthResponse(user,token);
-    }
-
-    private String generateUniqueUsername(String baseUsername) {
-        String username = baseUsername.replaceAll("[^a-zA-Z0-9]", "").toLowerCase();
-
-        if (username.length() < AppConstants.USERNAME_MIN_LENGTH) {
-            username = AppConstants.USERNAME_PREFIX + username;
+        if (user == linkedUser) {
+            // A returning user costs at most a picture update; lastLogin is written behind
+            if (pictureChanged) {
+                userRepository.updateProfileImageUrl(user.getId(), user.getProfileImageUrl());
+            }
+            lastLoginBuffer.record(user.getId(), user.getLastLogin());
+        } else if (user.getId() == null) {
+            user = insertNewUser(user, baseUsername(userInfo));
+            accountNameIndex.addAccount(user.getEmail(), user.getUsername());
+            userSearchIndex.put(user.getId(), user.getUsername(), user.getEmail());
+            accountStatsService.recordSignup(user.getStatus(), user.getProvider());
+        } else {
+            // Not save(): it would drop the read-only tokenVersion and rewrite fields other requests may be changing
+            userRepository.linkProvider(user.getId(), provider, userInfo.getId(), user.getStatus(),
+                    pictureChanged ? user.getProfileImageUrl() : null);
+            lastLoginBuffer.record(user.getId(), user.getLastLogin());
+            // Linking a provider or auto-verifying changes what the principal cache holds
+            userPrincipalService.evict(user.getId());
         }
 
-        if (!userRepository.existsByUsername(username)) {
-            return username;
-        }
+        return oAuthLoginCodeService.issue(user.getId());
+    }
 
-        int counter = 1;
-        String newUsername = username + counter;
-        while (userRepository.existsByUsername(newUsername)) {
-            counter++;
-            newUsername = username + counter;
+    // Another sign-up can take the generated name between the lookup and the insert; pick again if so
+    private User insertNewUser(User user, String baseUsername) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return userRepository.insert(user);
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_USERNAME_ATTEMPTS || !DuplicateKeys.violatedIndex(e).equals("username")) {
+                    throw e;
+                }
+                // Taken on another instance, so the local filter may not know it yet
+                accountNameIndex.addUsername(user.getUsername());
+                user.setUsername(usernameGenerator.generate(baseUsername));
+            }
         }
+    }
 
-        return newUsername;
+    private static String baseUsername(OAuth2UserInfo userInfo) {
+        return userInfo.getEmail().split("@")[0];
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.exception.custom.InvalidCredentialsException;
+import com.musicapp.auth_service.model.OAuthLoginCode;
+import com.musicapp.auth_service.util.TokenHashes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Single-use codes handed to the frontend at the end of an OAuth2 login in place of the tokens themselves.
+ * <p>
+ * The redirect URL ends up in browser history, proxy logs and Referer headers, so it only carries a code that
+ * expires within {@code oauth2.login-code.expiration} and can be redeemed once, by POST, for the access and
+ * refresh tokens. Codes live in Mongo so any instance can redeem them.
+ */
+@Service
+@RequiredArgsConstructor
+public class OAuthLoginCodeService {
+
+    private static final int CODE_BYTES = 32;
+
+    private final MongoTemplate mongoTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${oauth2.login-code.expiration}")
+    private Long expiration;
+
+    public String issue(String userId) {
+        byte[] bytes = new byte[CODE_BYTES];
+        secureRandom.nextBytes(bytes);
+        String code = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        mongoTemplate.insert(new OAuthLoginCode(null, TokenHashes.sha256(code), userId,
+                LocalDateTime.now().plusSeconds(expiration / 1000)));
+        return code;
+    }
+
+    /**
+     * Consumes a code and returns the user it was issued for.
+     *
+     * @throws InvalidCredentialsException if the code is unknown, expired or already redeemed
+     */
+    public String redeem(String code) {
+        // Removed atomically, so two concurrent redemptions of the same code cannot both succeed
+        OAuthLoginCode redeemed = mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("codeHash").is(TokenHashes.sha256(code))
+                        .and("expiresAt").gt(LocalDateTime.now())),
+                OAuthLoginCode.class);
+        if (redeemed == null) {
+            throw new InvalidCredentialsException(AppConstants.ERROR_INVALID_TOKEN);
+        }
+        return redeemed.getUserId();
+    }
+}
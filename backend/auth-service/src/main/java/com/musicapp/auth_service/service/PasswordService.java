@@ -7,6 +7,7 @@ import com.musicapp.auth_service.exception.custom.UserNotFoundException;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.RevocationIndex;
 import com.musicapp.auth_service.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,6 +22,8 @@ public class PasswordService {
     private final EmailService emailService;
     private final TokenService tokenService;
     private final ValidationUtil validationUtil;  // ADD
+    private final RefreshTokenService refreshTokenService;
+    private final RevocationIndex revocationIndex;
 
     public void initiatePasswordReset(String email) {
         User user = userRepository.findByEmail(email)
@@ -31,7 +34,7 @@ public class PasswordService {
         validationUtil.validateUserActive(user);
 
         String resetToken = tokenService.generatePasswordResetToken(user);
-        userRepository.save(user);
+        userRepository.setPasswordResetToken(user.getId(), resetToken, user.getPasswordResetTokenExpiry());
         emailService.sendPasswordResetEmail(user.getEmail(), resetToken, user.getUsername());
     }
 
@@ -43,8 +46,10 @@ public class PasswordService {
             throw new TokenExpiredException("Reset token has expired");
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        tokenService.clearPasswordResetToken(user);
-        userRepository.save(user);
+        // Consuming the token is atomic, so of two concurrent resets with the same token only one applies
+        String userId = userRepository.resetPassword(token, passwordEncoder.encode(newPassword))
+                .orElseThrow(() -> new RuntimeException("Invalid reset token"));
+        refreshTokenService.revokeAll(userId);
+        revocationIndex.revokeUser(userId);
     }
 }
\ No newline at end of file
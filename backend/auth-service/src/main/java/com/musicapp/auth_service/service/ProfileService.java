@@ -6,9 +6,12 @@ import com.musicapp.auth_service.exception.custom.UserNotFoundException;
 import com.musicapp.auth_service.exception.custom.UsernameAlreadyExistsException;
 import com.musicapp.auth_service.mapper.UserMapper;
 import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.AccountNameIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,54 +20,46 @@ public class ProfileService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final AccountNameIndex accountNameIndex;
+    private final UserSearchIndex userSearchIndex;
 
     public UserProfileResponse getUserProfile(String userId) {
-        User user = userRepository.findById(userId)
+        UserView user = userRepository.findViewById(userId)
                 .orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
 
         return userMapper.toUserProfileResponse(user);
 
     }
 
-    @CacheEvict(value = "users", key = "#userId")
+    @CacheEvict(value = {"users", "principals"}, key = "#userId")
     public UserProfileResponse updateUsername(String userId, String newUsername) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
-
-        // Check if username is already taken
-        if (userRepository.existsByUsername(newUsername)) {
-            // Check if it's not the same user
-            User existingUser = userRepository.findByUsername(newUsername).orElse(null);
-            if (existingUser != null && !existingUser.getId().equals(userId)) {
-                throw new UsernameAlreadyExistsException("Username already taken");
-            }
+        // The unique index decides whether the name is taken, so two users cannot claim it at once
+        User user;
+        try {
+            user = userRepository.updateUsername(userId, newUsername)
+                    .orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
+        } catch (DuplicateKeyException e) {
+            throw new UsernameAlreadyExistsException("Username already taken");
         }
-
-        user.setUsername(newUsername);
-        user = userRepository.save(user);
+        accountNameIndex.addUsername(newUsername);
+        userSearchIndex.put(user.getId(), user.getUsername(), user.getEmail());
 
         return userMapper.toUserProfileResponse(user);
     }
 
     @CacheEvict(value = "users", key = "#userId")
     public UserProfileResponse updateProfilePhoto(String userId, String profilePhotoUrl) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.updateProfileImageUrl(userId, profilePhotoUrl)
                 .orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
 
-        user.setProfileImageUrl(profilePhotoUrl);
-        user = userRepository.save(user);
-
         return userMapper.toUserProfileResponse(user);
     }
 
     @CacheEvict(value = "users", key = "#userId")
     public UserProfileResponse removeProfilePhoto(String userId) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.updateProfileImageUrl(userId, null)
                 .orElseThrow(() -> new UserNotFoundException(AppConstants.ERROR_USER_NOT_FOUND));
 
-        user.setProfileImageUrl(null);
-        user = userRepository.save(user);
-
         return userMapper.toUserProfileResponse(user);
     }
 }
\ No newline at end of file
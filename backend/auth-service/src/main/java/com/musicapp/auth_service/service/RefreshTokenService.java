@@ -0,0 +1,116 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.exception.custom.InvalidCredentialsException;
+import com.musicapp.auth_service.exception.custom.TokenExpiredException;
+import com.musicapp.auth_service.model.RefreshToken;
+import com.musicapp.auth_service.repository.RefreshTokenRepository;
+import com.musicapp.auth_service.util.TokenHashes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh.expiration}")
+    private Long refreshExpiration;
+
+    /**
+     * Result of exchanging a refresh token: who it belonged to and the token that replaces it.
+     */
+    public record Rotation(String userId, String refreshToken) {
+    }
+
+    /**
+     * Starts a new token family, e.g. on login.
+     */
+    public String issue(String userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consumes a refresh token and issues its successor in the same family. Presenting a token that was
+     * already consumed revokes the whole family, since either the client or an attacker holds a stolen copy.
+     */
+    public Rotation rotate(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Atomic so two concurrent exchanges of the same token cannot both succeed
+        RefreshToken consumed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("tokenHash").is(tokenHash).and("usedAt").is(null)),
+                new Update().set("usedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                RefreshToken.class);
+
+        if (consumed == null) {
+            refreshTokenRepository.findByTokenHash(tokenHash).ifPresent(reused -> {
+                log.warn("Refresh token reuse detected for user {}, revoking token family", reused.getUserId());
+                refreshTokenRepository.deleteByFamilyId(reused.getFamilyId());
+            });
+            throw new InvalidCredentialsException(AppConstants.ERROR_INVALID_TOKEN);
+        }
+
+        if (consumed.getExpiresAt().isBefore(now)) {
+            throw new TokenExpiredException(AppConstants.ERROR_TOKEN_EXPIRED);
+        }
+
+        return new Rotation(consumed.getUserId(), issue(consumed.getUserId(), consumed.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family the given token belongs to, e.g. on logout. Unknown tokens are ignored.
+     */
+    public void revoke(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    /**
+     * Signs the user out everywhere, e.g. after a password reset or deactivation.
+     */
+    public void revokeAll(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    private String issue(String userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setUserId(userId);
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setExpiresAt(now.plusSeconds(refreshExpiration / 1000));
+        refreshTokenRepository.save(refreshToken);
+
+        return token;
+    }
+
+    private static String hash(String token) {
+        return TokenHashes.sha256(token);
+    }
+}
@@ -0,0 +1,49 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.dto.response.RevocationFeedResponse;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.DeactivatedUserView;
+import com.musicapp.auth_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class RevocationService {
+
+    private final UserRepository userRepository;
+
+    @Value("${revocation.feed.page-size}")
+    private int pageSize;
+
+    /**
+     * Lists users deactivated at or after {@code since} (epoch millis), oldest first and at most {@code page-size}
+     * of them, for services that verify tokens locally. A full page returns the last entry's deactivation time as
+     * the next cursor and sets {@code hasMore}; otherwise the cursor is the current time.
+     */
+    public RevocationFeedResponse getRevocationsSince(long since) {
+        long now = System.currentTimeMillis();
+        LocalDateTime from = LocalDateTime.ofInstant(Instant.ofEpochMilli(since), ZoneId.systemDefault());
+
+        List<DeactivatedUserView> page = userRepository
+                .findDeactivatedByStatusAndDeactivatedAtGreaterThanEqualOrderByDeactivatedAtAsc(
+                        AccountStatus.DEACTIVATED, from, Limit.of(pageSize));
+        List<String> userIds = page.stream()
+                .map(DeactivatedUserView::id)
+                .toList();
+
+        if (page.size() < pageSize) {
+            return new RevocationFeedResponse(now, userIds, false);
+        }
+        // Inclusive cursor: users sharing the last timestamp are repeated on the next page rather than skipped
+        LocalDateTime last = page.get(page.size() - 1).deactivatedAt();
+        return new RevocationFeedResponse(last.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), userIds, true);
+    }
+}
@@ -0,0 +1,200 @@
+package com.musicapp.auth_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.dto.response.AdminUserResponse;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.mapper.UserMapper;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole user table as NDJSON or CSV for bulk consumers (recommendation-service, analytics).
+ * <p>
+ * Rows are read through one Mongo cursor in {@code _id} order and written straight to the response, so memory
+ * stays constant however many users there are. Every row carries its {@code userId}; a consumer whose
+ * download broke passes the last one it received as {@code after} and continues from there. Exports pause
+ * {@code batch-pause} after every {@code batch-size} rows and at most {@code max-concurrent} run at once, so
+ * a full export never crowds out interactive traffic.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserExportService {
+
+    private static final String CSV_HEADER = "userId,email,username,profileImageUrl,status,provider,createdAt,lastLogin\n";
+
+    private final MongoTemplate mongoTemplate;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${export.batch-size}")
+    private int batchSize;
+
+    @Value("${export.batch-pause}")
+    private long batchPause;
+
+    @Value("${export.max-concurrent}")
+    private int maxConcurrent;
+
+    private Semaphore permits;
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + value);
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent);
+        Gauge.builder("auth.export.active", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves an export slot and returns the body that streams it; the slot is released when the body ends.
+     *
+     * @param after the last {@code userId} already received, or {@code null} to start from the beginning
+     * @throws ServiceBusyException if {@code max-concurrent} exports are already running
+     */
+    public StreamingResponseBody export(Format format, String after) {
+        if (after != null && !ObjectId.isValid(after)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        if (!permits.tryAcquire()) {
+            throw new ServiceBusyException(AppConstants.ERROR_SERVICE_BUSY);
+        }
+        return out -> {
+            try {
+                write(format, after, out);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    void write(Format format, String after, OutputStream response) throws IOException {
+        Counter rows = Counter.builder("auth.export.rows").tag("format", format.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(batchSize);
+        if (after != null) {
+            query.addCriteria(Criteria.where("_id").gt(new ObjectId(after)));
+        }
+        query.fields().include("email", "username", "profileImageUrl", "status", "provider", "createdAt", "lastLogin");
+
+        OutputStream out = new BufferedOutputStream(response, 64 * 1024);
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        long written = 0;
+        try (Stream<UserView> users = mongoTemplate.stream(query, UserView.class, mongoTemplate.getCollectionName(User.class))) {
+            Iterator<UserView> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                AdminUserResponse user = userMapper.toAdminUserResponse(iterator.next());
+                out.write(format == Format.CSV ? csvRow(user) : ndjsonRow(user));
+                written++;
+                if (written % batchSize == 0) {
+                    // Hands the batch to the client and yields the cursor before the next one
+                    out.flush();
+                    rows.increment(batchSize);
+                    pause();
+                }
+            }
+        }
+        out.flush();
+        rows.increment(written % batchSize);
+        log.info("Exported {} users as {}{}", written, format, after != null ? " after " + after : "");
+    }
+
+    private byte[] ndjsonRow(AdminUserResponse user) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(user);
+        byte[] row = new byte[json.length + 1];
+        System.arraycopy(json, 0, row, 0, json.length);
+        row[json.length] = '\n';
+        return row;
+    }
+
+    private static byte[] csvRow(AdminUserResponse user) {
+        String row = String.join(",",
+                csv(user.getUserId()),
+                csv(user.getEmail()),
+                csv(user.getUsername()),
+                csv(user.getProfileImageUrl()),
+                csv(user.getStatus()),
+                csv(user.getProvider()),
+                csv(user.getCreatedAt()),
+                csv(user.getLastLogin())) + "\n";
+        return row.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // RFC 4180: quote fields holding a separator, quote or line break, doubling embedded quotes. Cells that a
+    // spreadsheet would evaluate as a formula (user-chosen emails and usernames) are prefixed with ' first
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private void pause() throws InterruptedIOException {
+        try {
+            Thread.sleep(batchPause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Export interrupted");
+        }
+    }
+}
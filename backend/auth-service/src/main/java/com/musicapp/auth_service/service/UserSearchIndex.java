@@ -0,0 +1,300 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory search over usernames and emails for the admin UI, so a search never scans {@code users}.
+ * <p>
+ * Every username and email is kept in a sorted map for prefix lookups, and the username and the email's local
+ * part are split into trigrams for substring lookups; the email domain is left out of the trigrams since a
+ * handful of providers would make its grams match almost everyone. A query of three or more characters
+ * intersects the postings of its trigrams, starting from the rarest; shorter queries are prefix-only.
+ * Candidates are verified against the actual names and ranked: exact username, username prefix, email prefix,
+ * username substring, email substring, then shorter usernames first.
+ * <p>
+ * Built by streaming the collection at startup and rebuilt periodically to pick up changes made on other
+ * instances; sign-ups, renames and OAuth accounts created here are applied as they happen.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    // Bounds the work per search; ranking is exact whenever a query matches fewer users than this
+    private static final int MAX_CANDIDATES = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // Only one rebuild at a time; writers are serialized with each other but never wait for a rebuild
+    private final Object rebuildLock = new Object();
+    private final Object writeLock = new Object();
+    private volatile Index current = new Index();
+    // Set while a rebuild streams the collection, so changes made meanwhile reach the new index too
+    private volatile Index building;
+    private volatile boolean ready;
+
+    private Timer searchTimer;
+
+    private record Entry(String userId, String username, String email) {
+
+        String usernameKey() {
+            return username == null ? null : username.toLowerCase(Locale.ROOT);
+        }
+
+        String emailKey() {
+            return email == null ? null : email.toLowerCase(Locale.ROOT);
+        }
+
+        String emailLocalPart() {
+            String key = emailKey();
+            if (key == null) {
+                return null;
+            }
+            int at = key.indexOf('@');
+            return at < 0 ? key : key.substring(0, at);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        searchTimer = Timer.builder("auth.search.latency").register(meterRegistry);
+        Gauge.builder("auth.search.index.entries", this, index -> index.current.entries.size()).register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} until the first build completes, while searches would miss existing users
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of the users best matching {@code query}, best first.
+     */
+    public List<String> search(String query, int limit) {
+        return searchTimer.record(() -> current.search(query.trim().toLowerCase(Locale.ROOT), limit));
+    }
+
+    /**
+     * Adds a user or replaces its names, e.g. after a sign-up or a rename.
+     */
+    public void put(String userId, String username, String email) {
+        Entry entry = new Entry(userId, username, email);
+        synchronized (writeLock) {
+            current.put(entry);
+            Index next = building;
+            if (next != null) {
+                next.put(entry);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${user-search.rebuild-interval}", initialDelayString = "${user-search.rebuild-interval}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            Index index = new Index();
+            building = index;
+            try {
+                Query query = new Query().cursorBatchSize(1000);
+                query.fields().include("email", "username");
+                try (Stream<Document> users = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(User.class))) {
+                    users.forEach(user -> {
+                        Entry entry = new Entry(user.get("_id").toString(), user.getString("username"), user.getString("email"));
+                        synchronized (writeLock) {
+                            // A change applied since the rebuild started is newer than what the cursor read
+                            index.putIfAbsent(entry);
+                        }
+                    });
+                }
+                current = index;
+                ready = true;
+                log.info("User search index rebuilt with {} users", index.entries.size());
+            } catch (RuntimeException e) {
+                log.error("Could not rebuild user search index: {}", e.getMessage());
+            } finally {
+                building = null;
+            }
+        }
+    }
+
+    private static final class Index {
+
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<String, Set<String>> names = new ConcurrentSkipListMap<>();
+
+        // Callers hold the write lock
+        void put(Entry entry) {
+            Entry previous = entries.put(entry.userId(), entry);
+            if (previous != null) {
+                remove(previous);
+            }
+            add(entry);
+        }
+
+        void putIfAbsent(Entry entry) {
+            if (entries.putIfAbsent(entry.userId(), entry) == null) {
+                add(entry);
+            }
+        }
+
+        List<String> search(String query, int limit) {
+            if (query.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            Set<String> candidates = new LinkedHashSet<>();
+            // Prefixes of whole names, which also covers queries running into the email domain
+            for (Set<String> ids : names.subMap(query, true, query + Character.MAX_VALUE, true).values()) {
+                if (candidates.size() >= MAX_CANDIDATES) {
+                    break;
+                }
+                candidates.addAll(ids);
+            }
+            if (query.length() >= GRAM) {
+                candidates.addAll(substringCandidates(query));
+            }
+
+            List<Entry> matches = new ArrayList<>();
+            for (String id : candidates) {
+                Entry entry = entries.get(id);
+                if (entry != null && rank(entry, query) >= 0) {
+                    matches.add(entry);
+                }
+            }
+            return matches.stream()
+                    .sorted(Comparator.<Entry>comparingInt(entry -> rank(entry, query))
+                            .thenComparingInt(entry -> entry.username() == null ? Integer.MAX_VALUE : entry.username().length())
+                            .thenComparing(entry -> entry.usernameKey() == null ? "" : entry.usernameKey()))
+                    .limit(limit)
+                    .map(Entry::userId)
+                    .toList();
+        }
+
+        private Set<String> substringCandidates(String query) {
+            List<Set<String>> postings = new ArrayList<>();
+            for (String gram : grams(query)) {
+                Set<String> ids = grams.get(gram);
+                if (ids == null) {
+                    return Set.of();
+                }
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<String> result = new HashSet<>();
+            for (String id : postings.get(0)) {
+                if (result.size() >= MAX_CANDIDATES) {
+                    break;
+                }
+                boolean inAll = true;
+                for (int i = 1; i < postings.size() && inAll; i++) {
+                    inAll = postings.get(i).contains(id);
+                }
+                if (inAll) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        // Lower is better; -1 means the entry does not match, e.g. a trigram false positive
+        private static int rank(Entry entry, String query) {
+            String username = entry.usernameKey();
+            String email = entry.emailKey();
+            if (query.equals(username)) {
+                return 0;
+            }
+            if (username != null && username.startsWith(query)) {
+                return 1;
+            }
+            if (email != null && email.startsWith(query)) {
+                return 2;
+            }
+            if (username != null && username.contains(query)) {
+                return 3;
+            }
+            String localPart = entry.emailLocalPart();
+            if (localPart != null && localPart.contains(query)) {
+                return 4;
+            }
+            return -1;
+        }
+
+        private void add(Entry entry) {
+            keys(entry).forEach(key -> names.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(entry.userId()));
+            gramsOf(entry).forEach(gram -> grams.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(entry.userId()));
+        }
+
+        private void remove(Entry entry) {
+            keys(entry).forEach(key -> removeFrom(names, key, entry.userId()));
+            gramsOf(entry).forEach(gram -> removeFrom(grams, gram, entry.userId()));
+        }
+
+        private static void removeFrom(Map<String, Set<String>> postings, String key, String userId) {
+            Set<String> ids = postings.get(key);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+
+        private static List<String> keys(Entry entry) {
+            List<String> keys = new ArrayList<>(2);
+            if (entry.usernameKey() != null) {
+                keys.add(entry.usernameKey());
+            }
+            if (entry.emailKey() != null) {
+                keys.add(entry.emailKey());
+            }
+            return keys;
+        }
+
+        private static Set<String> gramsOf(Entry entry) {
+            Set<String> result = new HashSet<>();
+            if (entry.usernameKey() != null) {
+                result.addAll(grams(entry.usernameKey()));
+            }
+            if (entry.emailLocalPart() != null) {
+                result.addAll(grams(entry.emailLocalPart()));
+            }
+            return result;
+        }
+
+        private static Set<String> grams(String text) {
+            Set<String> result = new HashSet<>();
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                result.add(text.substring(i, i + GRAM));
+            }
+            return result;
+        }
+    }
+}
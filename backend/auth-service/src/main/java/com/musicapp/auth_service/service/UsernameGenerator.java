@@ -0,0 +1,60 @@
+package com.musicapp.auth_service.service;
+
+import com.musicapp.auth_service.constants.AppConstants;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Picks a free username for accounts that did not choose one: the sanitized base if it is free, otherwise the
+ * base with the lowest free numeric suffix ({@code john}, {@code john1}, {@code john2}, ...).
+ * <p>
+ * A base the {@link AccountNameIndex} has never seen costs no query. Otherwise every taken variant is fetched
+ * in one anchored prefix query, which the unique index on {@code username} answers as a covered range scan,
+ * instead of probing the suffixes one round trip at a time. The result is only a candidate: the unique index
+ * still decides, and callers retry on a duplicate key.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameGenerator {
+
+    private final MongoTemplate mongoTemplate;
+    private final AccountNameIndex accountNameIndex;
+
+    public String generate(String baseUsername) {
+        String username = baseUsername.replaceAll("[^a-zA-Z0-9]", "").toLowerCase();
+
+        if (username.length() < AppConstants.USERNAME_MIN_LENGTH) {
+            username = AppConstants.USERNAME_PREFIX + username;
+        }
+
+        if (!accountNameIndex.mightHaveUsername(username)) {
+            return username;
+        }
+
+        // The base is alphanumeric, so it needs no escaping and keeps the regex a plain prefix match
+        Query query = Query.query(Criteria.where("username").regex("^" + username + "[0-9]*$"));
+        query.fields().include("username").exclude("_id");
+        Set<String> taken = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(User.class))
+                .stream()
+                .map(document -> document.getString("username"))
+                .collect(Collectors.toSet());
+
+        if (!taken.contains(username)) {
+            return username;
+        }
+        int counter = 1;
+        while (taken.contains(username + counter)) {
+            counter++;
+        }
+        return username + counter;
+    }
+}
@@ -0,0 +1,23 @@
+package com.musicapp.auth_service.util;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class DuplicateKeys {
+
+    // E11000 messages name the violated index, e.g. "... index: email dup key: { email: ... }"
+    private static final Pattern INDEX = Pattern.compile("index: (\\S+) dup key");
+
+    private DuplicateKeys() {
+    }
+
+    /**
+     * Name of the unique index the write violated, or an empty string if the message does not say.
+     */
+    public static String violatedIndex(DuplicateKeyException e) {
+        Matcher matcher = INDEX.matcher(String.valueOf(e.getMessage()));
+        return matcher.find() ? matcher.group(1) : "";
+    }
+}
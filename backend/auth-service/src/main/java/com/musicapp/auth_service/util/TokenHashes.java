@@ -0,0 +1,24 @@
+package com.musicapp.auth_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class TokenHashes {
+
+    private TokenHashes() {
+    }
+
+    /**
+     * Hex SHA-256 of an opaque token, which is what gets stored in place of the token itself.
+     */
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNameIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountNameIndex accountNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountNameIndex = new AccountNameIndex(mongoTemplate, meterRegistry);
+        ReflectionTestUtils.setField(accountNameIndex, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(accountNameIndex, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.invokeMethod(accountNameIndex, "init");
+    }
+
+    private void stubUsers(Document... users) {
+        when(mongoTemplate.estimatedCount(User.class)).thenReturn((long) users.length);
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.of(users));
+    }
+
+    @Test
+    void beforeFirstBuild_EveryNameShouldCountAsPossiblyTaken() {
+        // Act & Assert
+        assertTrue(accountNameIndex.mightHaveEmail("anyone@example.com"));
+        assertTrue(accountNameIndex.mightHaveUsername("anyone"));
+    }
+
+    @Test
+    void rebuild_ShouldAnswerFreeNamesWithoutTheDatabase() {
+        // Arrange
+        stubUsers(new Document("email", "taken@example.com").append("username", "taken"),
+                new Document("email", "oauth@example.com"));
+
+        // Act
+        accountNameIndex.rebuild();
+
+        // Assert
+        assertTrue(accountNameIndex.mightHaveEmail("taken@example.com"));
+        assertTrue(accountNameIndex.mightHaveEmail("oauth@example.com"));
+        assertTrue(accountNameIndex.mightHaveUsername("taken"));
+        assertFalse(accountNameIndex.mightHaveEmail("free@example.com"));
+        assertFalse(accountNameIndex.mightHaveUsername("free"));
+        // Emails and usernames are kept apart
+        assertFalse(accountNameIndex.mightHaveUsername("taken@example.com"));
+        assertEquals(3.0, meterRegistry.get("auth.names.lookups").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void addedNames_ShouldBeSeenImmediately() {
+        // Arrange
+        stubUsers();
+        accountNameIndex.rebuild();
+
+        // Act
+        accountNameIndex.addAccount("new@example.com", "newcomer");
+        accountNameIndex.addUsername("renamed");
+
+        // Assert
+        assertTrue(accountNameIndex.mightHaveEmail("new@example.com"));
+        assertTrue(accountNameIndex.mightHaveUsername("newcomer"));
+        assertTrue(accountNameIndex.mightHaveUsername("renamed"));
+    }
+
+    @Test
+    void rebuild_WhenMongoFails_ShouldKeepThePreviousFilter() {
+        // Arrange
+        stubUsers(new Document("email", "taken@example.com").append("username", "taken"));
+        accountNameIndex.rebuild();
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        accountNameIndex.rebuild();
+
+        // Assert
+        assertTrue(accountNameIndex.mightHaveUsername("taken"));
+        assertFalse(accountNameIndex.mightHaveUsername("free"));
+    }
+}
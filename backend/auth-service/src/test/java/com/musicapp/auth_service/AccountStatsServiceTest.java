@@ -0,0 +1,157 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.dto.response.AccountStatsResponse;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.service.AccountStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountStatsServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private AccountStatsService accountStatsService;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        accountStatsService = new AccountStatsService(mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(accountStatsService, "days", 30);
+        ReflectionTestUtils.invokeMethod(accountStatsService, "init");
+    }
+
+    private static Document group(Object id, int count) {
+        return new Document("_id", id).append("count", count);
+    }
+
+    private void refreshWith(Document facets) {
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("users"), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(facets), new Document()));
+        accountStatsService.refresh();
+    }
+
+    private Document facets() {
+        return new Document("byStatus", List.of(group("ACTIVE", 7), group("PENDING_VERIFICATION", 3)))
+                .append("byProvider", List.of(group("local", 8), group("google", 1), group(null, 1)))
+                .append("signupsPerDay", List.of(group(today.toString(), 2), group(today.minusDays(1).toString(), 1)))
+                .append("loginsPerDay", List.of(group(today.minusDays(1).toString(), 4)));
+    }
+
+    @Test
+    void refresh_ShouldLoadCountsFromOneFacetAggregation() {
+        // Arrange
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+
+        // Act
+        refreshWith(facets());
+        AccountStatsResponse stats = accountStatsService.getStats();
+
+        // Assert
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq("users"), eq(Document.class));
+        assertTrue(aggregation.getValue().toString().contains("$facet"));
+        assertEquals(10, stats.getTotal());
+        assertEquals(Map.of("ACTIVE", 7L, "PENDING_VERIFICATION", 3L), stats.getByStatus());
+        assertEquals(Map.of("local", 8L, "google", 1L, "unknown", 1L), stats.getByProvider());
+        assertEquals(List.of(today.minusDays(1).toString(), today.toString()), List.copyOf(stats.getSignupsPerDay().keySet()));
+        assertEquals(4L, stats.getLoginsPerDay().get(today.minusDays(1).toString()));
+        assertNotNull(stats.getRefreshedAt());
+    }
+
+    @Test
+    void getStats_BeforeFirstRefresh_ShouldThrowServiceBusy() {
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> accountStatsService.getStats());
+    }
+
+    @Test
+    void getStats_WhenRefreshFails_ShouldKeepPreviousCounts() {
+        // Arrange
+        refreshWith(facets());
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("users"), eq(Document.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        accountStatsService.refresh();
+
+        // Assert
+        assertEquals(10, accountStatsService.getStats().getTotal());
+    }
+
+    @Test
+    void recordSignupAndStatusChange_ShouldAdjustCountsWithoutQuerying() {
+        // Arrange
+        refreshWith(facets());
+
+        // Act
+        accountStatsService.recordSignup(AccountStatus.PENDING_VERIFICATION, "local");
+        accountStatsService.recordStatusChange(AccountStatus.PENDING_VERIFICATION, AccountStatus.ACTIVE);
+        accountStatsService.recordStatusChange(AccountStatus.ACTIVE, AccountStatus.DEACTIVATION_PENDING);
+        accountStatsService.recordProviderChange("local", "google");
+        AccountStatsResponse stats = accountStatsService.getStats();
+
+        // Assert
+        verify(mongoTemplate, times(1)).aggregate(any(Aggregation.class), eq("users"), eq(Document.class));
+        assertEquals(11, stats.getTotal());
+        assertEquals(Map.of("ACTIVE", 7L, "PENDING_VERIFICATION", 3L, "DEACTIVATION_PENDING", 1L), stats.getByStatus());
+        assertEquals(Map.of("local", 8L, "google", 2L, "unknown", 1L), stats.getByProvider());
+        assertEquals(3L, stats.getSignupsPerDay().get(today.toString()));
+    }
+
+    @Test
+    void recordLogin_ShouldMoveUserToTodayOnlyOnFirstLoginOfTheDay() {
+        // Arrange
+        refreshWith(facets());
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        accountStatsService.recordLogin(now.minusDays(1), now);
+        accountStatsService.recordLogin(now, now);
+        accountStatsService.recordLogin(null, now);
+        AccountStatsResponse stats = accountStatsService.getStats();
+
+        // Assert
+        assertEquals(3L, stats.getLoginsPerDay().get(today.minusDays(1).toString()));
+        assertEquals(2L, stats.getLoginsPerDay().get(today.toString()));
+    }
+
+    @Test
+    void recordStatusChange_ShouldNeverLeaveNegativeCounts() {
+        // Arrange
+        refreshWith(facets());
+
+        // Act
+        accountStatsService.recordStatusChange(AccountStatus.DEACTIVATION_PENDING, AccountStatus.DEACTIVATED);
+
+        // Assert
+        Map<String, Long> byStatus = accountStatsService.getStats().getByStatus();
+        assertFalse(byStatus.containsKey("DEACTIVATION_PENDING"));
+        assertEquals(1L, byStatus.get("DEACTIVATED"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.migration.AccountStatusMigration;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountStatusMigrationTest {
+
+    private final AccountStatusMigration migration = new AccountStatusMigration();
+
+    private String migratedStatus(Document user) {
+        Update update = migration.migrate(user);
+        return update.getUpdateObject().get("$set", Document.class).getString("status");
+    }
+
+    @Test
+    void migrate_ShouldDeriveStatusFromLegacyFlags() {
+        assertEquals("DEACTIVATED", migratedStatus(new Document("active", false).append("emailVerified", true)));
+        assertEquals("DEACTIVATION_PENDING", migratedStatus(new Document("active", true)
+                .append("emailVerified", true).append("deactivationRequestedAt", new Date())));
+        assertEquals("ACTIVE", migratedStatus(new Document("active", true).append("emailVerified", true)));
+        assertEquals("PENDING_VERIFICATION", migratedStatus(new Document("active", true)));
+    }
+
+    @Test
+    void migrate_WithoutActiveFlag_ShouldTreatAccountAsActive() {
+        assertEquals("ACTIVE", migratedStatus(new Document("emailVerified", true)));
+    }
+
+    @Test
+    void migrate_ShouldRemoveLegacyFlags() {
+        // Act
+        Update update = migration.migrate(new Document("active", true).append("emailVerified", true));
+
+        // Assert
+        Document unset = update.getUpdateObject().get("$unset", Document.class);
+        assertTrue(unset.containsKey("active"));
+        assertTrue(unset.containsKey("emailVerified"));
+    }
+}
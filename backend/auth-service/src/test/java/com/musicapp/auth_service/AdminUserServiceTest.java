@@ -0,0 +1,153 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.dto.request.AdminUserFilter;
+import com.musicapp.auth_service.dto.response.AdminUserResponse;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.mapper.UserMapper;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.service.AdminUserService;
+import com.musicapp.auth_service.service.UserSearchIndex;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminUserServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    private AdminUserService adminUserService;
+
+    @BeforeEach
+    void setUp() {
+        adminUserService = new AdminUserService(mongoTemplate, userRepository, new UserMapper(), userSearchIndex);
+    }
+
+    private static UserView view(String id, String username) {
+        return new UserView(id, username + "@example.com", username, null, AccountStatus.ACTIVE, "local",
+                LocalDateTime.now(), null, 0);
+    }
+
+    @Test
+    void listUsers_WhenMoreRowsThanPageSize_ShouldReturnCursorOfLastRow() {
+        // Arrange
+        List<UserView> rows = IntStream.range(0, 3).mapToObj(i -> view(new ObjectId().toHexString(), "user" + i)).toList();
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(UserView.class), eq("users"))).thenReturn(rows);
+
+        // Act
+        AdminUserService.Page page = adminUserService.listUsers(new AdminUserFilter(), null, 2);
+
+        // Assert
+        assertEquals(2, page.users().size());
+        assertEquals(rows.get(1).id(), page.nextCursor());
+        assertEquals(3, query.getValue().getLimit());
+        assertEquals(new Document("_id", -1), query.getValue().getSortObject());
+        // Credentials are never read
+        assertFalse(query.getValue().getFieldsObject().containsKey("password"));
+        assertTrue(query.getValue().getFieldsObject().containsKey("email"));
+    }
+
+    @Test
+    void listUsers_WithCursorAndFilters_ShouldSeekPastCursor() {
+        // Arrange
+        String cursor = new ObjectId().toHexString();
+        AdminUserFilter filter = new AdminUserFilter();
+        filter.setStatus(AccountStatus.ACTIVE);
+        filter.setUsernamePrefix("j.d");
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.find(query.capture(), eq(UserView.class), eq("users"))).thenReturn(List.of(view(cursor, "jd")));
+
+        // Act
+        AdminUserService.Page page = adminUserService.listUsers(filter, cursor, 50);
+
+        // Assert
+        assertNull(page.nextCursor());
+        String criteria = query.getValue().getQueryObject().toString();
+        assertTrue(criteria.contains("$lt=" + cursor), criteria);
+        assertTrue(criteria.contains("^j\\.d"), criteria);
+        assertTrue(criteria.contains("status=ACTIVE"), criteria);
+    }
+
+    @Test
+    void listUsers_WithMalformedCursor_ShouldRejectRequest() {
+        // Act & Assert
+        assertThrows(ResponseStatusException.class,
+                () -> adminUserService.listUsers(new AdminUserFilter(), "not-an-id", 50));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void countUsers_WithoutFilters_ShouldUseCollectionMetadata() {
+        // Arrange
+        when(mongoTemplate.estimatedCount(User.class)).thenReturn(1_000_000L);
+
+        // Act & Assert
+        assertEquals(1_000_000L, adminUserService.countUsers(new AdminUserFilter()));
+        verify(mongoTemplate, never()).count(any(Query.class), eq(User.class));
+    }
+
+    @Test
+    void search_ShouldReturnRowsInIndexRankOrder() {
+        // Arrange
+        String first = new ObjectId().toHexString();
+        String second = new ObjectId().toHexString();
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userSearchIndex.search("jo", 20)).thenReturn(List.of(first, second));
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.find(any(Query.class), eq(UserView.class), eq("users")))
+                .thenReturn(List.of(view(second, "bjorn"), view(first, "jo")));
+
+        // Act
+        List<String> usernames = adminUserService.search("jo", 20).stream().map(AdminUserResponse::getUsername).toList();
+
+        // Assert
+        assertEquals(List.of("jo", "bjorn"), usernames);
+    }
+
+    @Test
+    void search_BeforeIndexIsBuilt_ShouldAskToRetry() {
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> adminUserService.search("jo", 20));
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void requireAdmin_WithRegularUser_ShouldBeForbidden() {
+        // Arrange
+        when(userRepository.findViewById("user-1")).thenReturn(Optional.of(view("user-1", "someone")));
+
+        // Act & Assert
+        assertThrows(ResponseStatusException.class, () -> adminUserService.requireAdmin("user-1"));
+    }
+}
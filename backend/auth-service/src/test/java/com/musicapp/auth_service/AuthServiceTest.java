@@ -5,25 +5,41 @@ import com.musicapp.auth_service.dto.request.RegisterRequest;
 import com.musicapp.auth_service.dto.response.AuthResponse;
 import com.musicapp.auth_service.exception.custom.AccountDeactivatedException;
 import com.musicapp.auth_service.exception.custom.EmailAlreadyExistsException;
+import com.musicapp.auth_service.exception.custom.InvalidCredentialsException;
+import com.musicapp.auth_service.exception.custom.LoginThrottledException;
+import com.musicapp.auth_service.exception.custom.UsernameAlreadyExistsException;
 import com.musicapp.auth_service.mapper.UserMapper;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import com.musicapp.auth_service.security.BoundedPasswordEncoder;
 import com.musicapp.auth_service.security.JwtUtil;
+import com.musicapp.auth_service.security.LoginAttemptTracker;
+import com.musicapp.auth_service.security.RevocationIndex;
+import com.musicapp.auth_service.service.AccountStatsService;
 import com.musicapp.auth_service.service.AuthService;
 import com.musicapp.auth_service.service.EmailService;
 import com.musicapp.auth_service.service.EmailVerificationService;
+import com.musicapp.auth_service.service.LastLoginBuffer;
+import com.musicapp.auth_service.service.OAuthLoginCodeService;
+import com.musicapp.auth_service.service.RefreshTokenService;
 import com.musicapp.auth_service.service.TokenService;
+import com.musicapp.auth_service.service.UserSearchIndex;
+import com.musicapp.auth_service.util.ValidationUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -37,7 +53,7 @@ class AuthServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private BoundedPasswordEncoder passwordEncoder;
 
     @Mock
     private JwtUtil jwtUtil;
@@ -54,6 +70,34 @@ class AuthServiceTest {
     @Mock
     private TokenService tokenService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private RevocationIndex revocationIndex;
+
+    @Mock
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @Mock
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Mock
+    private AccountNameIndex accountNameIndex;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private AccountStatsService accountStatsService;
+
+    @Mock
+    private OAuthLoginCodeService oAuthLoginCodeService;
+
+    // Real rules rather than a mock: login must actually reject deactivated and unverified accounts
+    @Spy
+    private ValidationUtil validationUtil = new ValidationUtil();
+
     private RegisterRequest registerRequest;
 
     @BeforeEach
@@ -68,14 +112,31 @@ class AuthServiceTest {
     @Test
     void register_WithExistingEmail_ShouldThrowException() {
         // Arrange
-        when(userRepository.existsByEmail(registerRequest.getEmail())).thenReturn(true);
+        CompletableFuture<String> encoded = new CompletableFuture<>();
+        when(passwordEncoder.encodeAsync(anyString())).thenReturn(encoded);
+        when(accountNameIndex.mightHaveEmail(registerRequest.getEmail())).thenReturn(true);
+        when(userRepository.findTakenField(registerRequest.getEmail(), registerRequest.getUsername())).thenReturn(Optional.of("email"));
 
         // Act & Assert
         assertThrows(EmailAlreadyExistsException.class, () -> {
             authService.register(registerRequest);
         });
 
-        verify(userRepository, never()).save(any(User.class));
+        assertTrue(encoded.isCancelled());
+        verify(userRepository, never()).insert(any(User.class));
+    }
+
+    @Test
+    void register_WhenUsernameTakenConcurrently_ShouldTranslateDuplicateKey() {
+        // Arrange
+        when(passwordEncoder.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encrypted-password"));
+        when(accountNameIndex.mightHaveEmail(anyString())).thenReturn(true);
+        when(userRepository.findTakenField(anyString(), anyString())).thenReturn(Optional.empty());
+        when(userRepository.insert(any(User.class))).thenThrow(new DuplicateKeyException(
+                "E11000 duplicate key error collection: musicapp.users index: username dup key: { username: \"tester\" }"));
+
+        // Act & Assert
+        assertThrows(UsernameAlreadyExistsException.class, () -> authService.register(registerRequest));
     }
 
     @Test
@@ -95,12 +156,11 @@ class AuthServiceTest {
         testUser.setProvider("local");
         testUser.setCreatedAt(LocalDateTime.now());
 
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("encrypted-password");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(jwtUtil.generateToken(anyString(), anyString())).thenReturn("test-token");
-        when(userMapper.toAuthResponse(any(User.class), anyString())).thenReturn(new AuthResponse("test-token", testUser.getId(), testUser.getEmail(), testUser.getUsername(), testUser.getProfileImageUrl()));
+        when(passwordEncoder.encodeAsync(anyString())).thenReturn(CompletableFuture.completedFuture("encrypted-password"));
+        when(userRepository.insert(any(User.class))).thenReturn(testUser);
+        when(jwtUtil.generateToken(anyString(), anyString(), anyLong())).thenReturn("test-token");
+        when(refreshTokenService.issue(anyString())).thenReturn("test-refresh-token");
+        when(userMapper.toAuthResponse(any(User.class), anyString(), anyString())).thenReturn(new AuthResponse("test-token", testUser.getId(), testUser.getEmail(), testUser.getUsername(), testUser.getProfileImageUrl(), "test-refresh-token"));
 
         // Act
         AuthResponse response = authService.register(registerRequest);
@@ -108,8 +168,27 @@ class AuthServiceTest {
         // Assert
         assertNotNull(response);
         assertEquals("test-token", response.getToken());
-        verify(userRepository).save(argThat(user -> user.getStatus() == AccountStatus.PENDING_VERIFICATION));
-        verify(jwtUtil).generateToken(anyString(), anyString());
+        assertEquals("test-refresh-token", response.getRefreshToken());
+        verify(userRepository).insert(argThat((User user) -> user.getStatus() == AccountStatus.PENDING_VERIFICATION
+                && user.getPassword().equals("encrypted-password")));
+        verify(jwtUtil).generateToken(anyString(), anyString(), anyLong());
+        // Neither name was in the Bloom filter, so only the insert went to Mongo
+        verify(userRepository, never()).findTakenField(anyString(), anyString());
+        verify(accountNameIndex).addAccount("test@example.com", "testuser");
+        verify(userSearchIndex).put("test-user-id", "testuser", "test@example.com");
+    }
+
+    @Test
+    void isUsernameAvailable_ShouldConfirmBloomHitsAgainstMongo() {
+        // Arrange
+        when(accountNameIndex.mightHaveUsername("fresh")).thenReturn(false);
+        when(accountNameIndex.mightHaveUsername("maybe")).thenReturn(true);
+        when(userRepository.existsByUsername("maybe")).thenReturn(false);
+
+        // Act & Assert
+        assertTrue(authService.isUsernameAvailable("fresh"));
+        assertTrue(authService.isUsernameAvailable("maybe"));
+        verify(userRepository, never()).existsByUsername("fresh");
     }
 
     @Test
@@ -132,4 +211,156 @@ class AuthServiceTest {
             authService.login(loginRequest);
         });
     }
+
+    @Test
+    void login_WithOutdatedHash_ShouldRehashPassword() {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmailOrUsername("test@example.com");
+        loginRequest.setPassword("password123");
+
+        User user = new User();
+        user.setId("test-id");
+        user.setEmail("test@example.com");
+        user.setPassword("$2a$10$old-hash");
+        user.setStatus(AccountStatus.ACTIVE);
+
+        when(userRepository.findByEmailOrUsername(anyString(), anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "$2a$10$old-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$old-hash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("{bcrypt}$2a$12$new-hash");
+        when(jwtUtil.generateToken(anyString(), anyString(), anyLong())).thenReturn("test-token");
+        when(refreshTokenService.issue(anyString())).thenReturn("test-refresh-token");
+
+        // Act
+        authService.login(loginRequest);
+
+        // Assert
+        verify(userRepository).updatePassword("test-id", "{bcrypt}$2a$12$new-hash");
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void login_WithCurrentHash_ShouldNotRehashPassword() {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmailOrUsername("test@example.com");
+        loginRequest.setPassword("password123");
+
+        User user = new User();
+        user.setId("test-id");
+        user.setEmail("test@example.com");
+        user.setPassword("{bcrypt}$2a$12$current-hash");
+        user.setStatus(AccountStatus.ACTIVE);
+
+        when(userRepository.findByEmailOrUsername(anyString(), anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password123", "{bcrypt}$2a$12$current-hash")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("{bcrypt}$2a$12$current-hash")).thenReturn(false);
+        when(jwtUtil.generateToken(anyString(), anyString(), anyLong())).thenReturn("test-token");
+        when(refreshTokenService.issue(anyString())).thenReturn("test-refresh-token");
+
+        // Act
+        authService.login(loginRequest);
+
+        // Assert
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+        verify(lastLoginBuffer).record(eq("test-id"), any(LocalDateTime.class));
+        assertEquals("{bcrypt}$2a$12$current-hash", user.getPassword());
+    }
+
+    @Test
+    void login_WhenLockedOut_ShouldRejectBeforeHashing() {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmailOrUsername("test@example.com");
+        loginRequest.setPassword("password123");
+
+        doThrow(new LoginThrottledException("locked", 30)).when(loginAttemptTracker).checkAllowed("test@example.com");
+
+        // Act & Assert
+        assertThrows(LoginThrottledException.class, () -> authService.login(loginRequest));
+        verifyNoInteractions(userRepository, passwordEncoder);
+    }
+
+    @Test
+    void login_WithWrongPassword_ShouldRecordFailure() {
+        // Arrange
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmailOrUsername("test@example.com");
+        loginRequest.setPassword("wrong");
+
+        User user = new User();
+        user.setId("test-id");
+        user.setEmail("test@example.com");
+        user.setPassword("{bcrypt}$2a$12$current-hash");
+        user.setStatus(AccountStatus.ACTIVE);
+
+        when(userRepository.findByEmailOrUsername(anyString(), anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrong", "{bcrypt}$2a$12$current-hash")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest));
+        verify(loginAttemptTracker).recordAccountFailure("test-id");
+        verify(loginAttemptTracker, never()).recordFailure(anyString());
+        verify(loginAttemptTracker, never()).recordAccountSuccess(anyString());
+    }
+
+    @Test
+    void login_ThroughEmailAndUsername_ShouldShareOneFailureBudget() {
+        // Arrange
+        User user = new User();
+        user.setId("test-id");
+        user.setEmail("test@example.com");
+        user.setUsername("tester");
+        user.setPassword("{bcrypt}$2a$12$current-hash");
+        user.setStatus(AccountStatus.ACTIVE);
+        when(userRepository.findByEmailOrUsername(anyString(), anyString())).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrong", "{bcrypt}$2a$12$current-hash")).thenReturn(false);
+
+        // Act
+        for (String identity : new String[]{"test@example.com", "tester"}) {
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setEmailOrUsername(identity);
+            loginRequest.setPassword("wrong");
+            assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest));
+        }
+
+        // Assert
+        verify(loginAttemptTracker, times(2)).checkAccountAllowed("test-id");
+        verify(loginAttemptTracker, times(2)).recordAccountFailure("test-id");
+        verify(loginAttemptTracker, never()).recordFailure(anyString());
+    }
+
+    @Test
+    void exchangeOAuthLoginCode_ShouldIssueTokensForTheCodesUser() {
+        // Arrange
+        UserView user = new UserView("test-id", "test@example.com", "tester", null, AccountStatus.ACTIVE,
+                "google", LocalDateTime.now(), null, 0);
+        AuthResponse expected = new AuthResponse("jwt", "test-id", "test@example.com", "tester", null, "refresh");
+        when(oAuthLoginCodeService.redeem("code")).thenReturn("test-id");
+        when(userRepository.findViewById("test-id")).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken("test-id", "test@example.com", 0)).thenReturn("jwt");
+        when(refreshTokenService.issue("test-id")).thenReturn("refresh");
+        when(userMapper.toAuthResponse(user, "jwt", "refresh")).thenReturn(expected);
+
+        // Act
+        AuthResponse response = authService.exchangeOAuthLoginCode("code");
+
+        // Assert
+        assertSame(expected, response);
+    }
+
+    @Test
+    void exchangeOAuthLoginCode_WithDeactivatedAccount_ShouldNotIssueTokens() {
+        // Arrange
+        UserView user = new UserView("test-id", "test@example.com", "tester", null, AccountStatus.DEACTIVATED,
+                "google", LocalDateTime.now(), null, 0);
+        when(oAuthLoginCodeService.redeem("code")).thenReturn("test-id");
+        when(userRepository.findViewById("test-id")).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThrows(AccountDeactivatedException.class, () -> authService.exchangeOAuthLoginCode("code"));
+        verifyNoInteractions(jwtUtil, refreshTokenService);
+    }
 }
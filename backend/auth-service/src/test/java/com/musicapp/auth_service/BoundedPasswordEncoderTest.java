@@ -0,0 +1,110 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateAndRecordTimings() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(null, null), 2, 4, meterRegistry);
+
+        // Act
+        String encoded = encoder.encode("secret");
+
+        // Assert
+        assertEquals("{plain}secret", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+        assertFalse(encoder.matches("other", encoded));
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(3, meterRegistry.get("auth.password.hash.queue").timer().count());
+    }
+
+    @Test
+    void encodeAsync_WhenCancelledWhileQueued_ShouldSkipHashing() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(started, release), 1, 1, meterRegistry);
+        CompletableFuture<String> running = encoder.encodeAsync("first");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<String> queued = encoder.encodeAsync("second");
+        queued.cancel(false);
+        release.countDown();
+
+        // Assert
+        assertEquals("{plain}first", running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.isCancelled());
+        while (meterRegistry.get("auth.password.hash.queue").timer().count() < 2) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void encode_WhenPoolAndQueueAreFull_ShouldShedLoad() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(started, release), 1, 1, meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (meterRegistry.get("auth.password.hash.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> encoder.encode("third"));
+        assertEquals(1.0, meterRegistry.get("auth.password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("{plain}first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("{plain}second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    // Stand-in for BCrypt that can hold the hashing thread until the test releases it
+    private record PlainEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if (started != null) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return ("{plain}" + rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.security.DistributedBucketStore;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributedBucketStoreTest {
+
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(20, Refill.intervally(20, Duration.ofMinutes(1))))
+            .build();
+
+    private final InMemoryProxyManager sharedStore = new InMemoryProxyManager();
+
+    private DistributedBucketStore replica(long maxUnsynchronizedTokens) {
+        return new DistributedBucketStore(sharedStore, maxUnsynchronizedTokens, Duration.ofMinutes(1),
+                100, Duration.ofMinutes(2), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void replicas_ShouldShareOneLimit() {
+        // Arrange
+        DistributedBucketStore first = replica(0);
+        DistributedBucketStore second = replica(0);
+
+        // Act
+        int consumed = 0;
+        for (int i = 0; i < 30; i++) {
+            DistributedBucketStore replica = i % 2 == 0 ? first : second;
+            if (replica.resolve("ip:10.0.0.1", CONFIGURATION).tryConsume(1)) {
+                consumed++;
+            }
+        }
+
+        // Assert
+        assertEquals(20, consumed);
+    }
+
+    @Test
+    void cheapRequests_ShouldBeSynchronizedInBatches() {
+        // Arrange
+        DistributedBucketStore replica = replica(5);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertTrue(replica.resolve("ip:10.0.0.1", CONFIGURATION).tryConsume(1));
+        }
+
+        // Assert
+        assertTrue(sharedStore.reads.get() <= 5, "remote reads: " + sharedStore.reads.get());
+    }
+
+    @Test
+    void expensiveRequests_ShouldAlwaysReachTheSharedStore() {
+        // Arrange
+        DistributedBucketStore first = replica(5);
+        DistributedBucketStore second = replica(5);
+
+        // Act & Assert
+        assertTrue(first.resolve("account:victim", CONFIGURATION).tryConsume(10));
+        assertTrue(second.resolve("account:victim", CONFIGURATION).tryConsume(10));
+        assertFalse(first.resolve("account:victim", CONFIGURATION).tryConsume(10));
+    }
+
+    // Stand-in for the Mongo proxy manager: same compare-and-swap contract over a map
+    private static class InMemoryProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+        private final Map<String, byte[]> states = new HashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+
+        InMemoryProxyManager() {
+            super(ClientSideConfig.getDefault());
+        }
+
+        @Override
+        protected CompareAndSwapOperation beginCompareAndSwapOperation(String key) {
+            return new CompareAndSwapOperation() {
+                @Override
+                public Optional<byte[]> getStateData() {
+                    reads.incrementAndGet();
+                    synchronized (states) {
+                        return Optional.ofNullable(states.get(key));
+                    }
+                }
+
+                @Override
+                public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+                    synchronized (states) {
+                        if (!Arrays.equals(states.get(key), originalData)) {
+                            return false;
+                        }
+                        states.put(key, newData);
+                        return true;
+                    }
+                }
+            };
+        }
+
+        @Override
+        protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected CompletableFuture<Void> removeAsync(String key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void removeProxy(String key) {
+            synchronized (states) {
+                states.remove(key);
+            }
+        }
+
+        @Override
+        public boolean isAsyncModeSupported() {
+            return false;
+        }
+    }
+}
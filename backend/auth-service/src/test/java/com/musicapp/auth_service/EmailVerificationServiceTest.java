@@ -3,6 +3,8 @@ package com.musicapp.auth_service;
 import com.musicapp.auth_service.model.AccountStatus;
 import com.musicapp.auth_service.model.User;
 import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.UserPrincipalService;
+import com.musicapp.auth_service.service.AccountStatsService;
 import com.musicapp.auth_service.service.EmailService;
 import com.musicapp.auth_service.service.EmailVerificationService;
 import com.musicapp.auth_service.service.TokenService;
@@ -10,7 +12,6 @@ import com.musicapp.auth_service.util.ValidationUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -19,6 +20,9 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +40,12 @@ class EmailVerificationServiceTest {
     @Mock
     private ValidationUtil validationUtil;
 
+    @Mock
+    private UserPrincipalService userPrincipalService;
+
+    @Mock
+    private AccountStatsService accountStatsService;
+
     @InjectMocks
     private EmailVerificationService emailVerificationService;
 
@@ -56,7 +66,8 @@ class EmailVerificationServiceTest {
 
         emailVerificationService.sendVerificationEmail(user);
 
-        verify(userRepository).save(user);
+        verify(userRepository).setEmailVerificationToken(eq("u1"), eq("token-123"), any());
+        verify(userRepository, never()).save(any());
         verify(emailService).sendEmailVerification("user@example.com", "token-123", "user");
     }
 
@@ -67,13 +78,27 @@ class EmailVerificationServiceTest {
 
         when(userRepository.findByEmailVerificationToken("token")).thenReturn(Optional.of(user));
         when(tokenService.isEmailVerificationTokenValid(user)).thenReturn(true);
+        when(userRepository.verifyEmail("token")).thenReturn(Optional.of("u1"));
 
         emailVerificationService.verifyEmail("token");
 
-        ArgumentCaptor<User> savedUser = ArgumentCaptor.forClass(User.class);
-        verify(userRepository).save(savedUser.capture());
-        assertEquals(AccountStatus.ACTIVE, savedUser.getValue().getStatus());
-        verify(tokenService).clearEmailVerificationToken(user);
+        verify(userRepository, never()).save(any());
         verify(validationUtil).validateUserNotVerified(user);
+        verify(userPrincipalService).evict("u1");
+        verify(accountStatsService).recordStatusChange(AccountStatus.PENDING_VERIFICATION, AccountStatus.ACTIVE);
+    }
+
+    @Test
+    void verifyEmail_whenTokenConsumedConcurrently_fails() {
+        user.setEmailVerificationToken("token");
+        user.setEmailVerificationTokenExpiry(LocalDateTime.now().plusMinutes(5));
+
+        when(userRepository.findByEmailVerificationToken("token")).thenReturn(Optional.of(user));
+        when(tokenService.isEmailVerificationTokenValid(user)).thenReturn(true);
+        when(userRepository.verifyEmail("token")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> emailVerificationService.verifyEmail("token"));
+        verify(userPrincipalService, never()).evict(anyString());
+        verifyNoInteractions(accountStatsService);
     }
 }
@@ -0,0 +1,195 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.config.JwtSigningProperties;
+import com.musicapp.auth_service.security.JwtKeyStore;
+import com.musicapp.auth_service.security.JwtUtil;
+import com.musicapp.auth_service.security.TokenClaims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signing-0123456789abcdef";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = createJwtUtil(new JwtSigningProperties());
+    }
+
+    private JwtUtil createJwtUtil(JwtSigningProperties properties) {
+        JwtKeyStore keyStore = new JwtKeyStore(properties);
+        ReflectionTestUtils.setField(keyStore, "secret", SECRET);
+        ReflectionTestUtils.invokeMethod(keyStore, "init");
+
+        JwtUtil util = new JwtUtil(meterRegistry, keyStore);
+        ReflectionTestUtils.setField(util, "expiration", 60000L);
+        ReflectionTestUtils.invokeMethod(util, "init");
+        return util;
+    }
+
+    private static JwtSigningProperties.SigningKey signingKey(String kid, KeyPair keyPair, boolean withPrivateKey) {
+        JwtSigningProperties.SigningKey key = new JwtSigningProperties.SigningKey();
+        key.setKid(kid);
+        key.setPublicKey(Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            key.setPrivateKey(Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        }
+        return key;
+    }
+
+    @Test
+    void parseToken_WithValidToken_ShouldReturnClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken("user-1", "user@example.com", 0);
+
+        // Act
+        Optional<TokenClaims> claims = jwtUtil.parseToken(token);
+
+        // Assert
+        assertTrue(claims.isPresent());
+        assertEquals("user-1", claims.get().userId());
+        assertEquals("user@example.com", claims.get().email());
+        assertTrue(claims.get().expiresAt().isAfter(claims.get().issuedAt()));
+        assertEquals("user-1", jwtUtil.getUserIdFromToken(token));
+    }
+
+    @Test
+    void parseToken_ShouldExposeTokenIdAndVersion() {
+        // Arrange
+        String first = jwtUtil.generateToken("user-1", "user@example.com", 3);
+        String second = jwtUtil.generateToken("user-1", "user@example.com", 3);
+
+        // Act
+        TokenClaims firstClaims = jwtUtil.parseToken(first).orElseThrow();
+        TokenClaims secondClaims = jwtUtil.parseToken(second).orElseThrow();
+
+        // Assert
+        assertEquals(3, firstClaims.tokenVersion());
+        assertNotNull(firstClaims.tokenId());
+        assertNotEquals(firstClaims.tokenId(), secondClaims.tokenId());
+    }
+
+    @Test
+    void parseToken_WithTamperedToken_ShouldReturnEmpty() {
+        // Arrange
+        String token = jwtUtil.generateToken("user-1", "user@example.com", 0);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // Act & Assert
+        assertTrue(jwtUtil.parseToken(tampered).isEmpty());
+        assertTrue(jwtUtil.parseToken("not-a-jwt").isEmpty());
+        assertFalse(jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    void parseToken_WithExpiredToken_ShouldReturnEmpty() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1000L);
+        String token = jwtUtil.generateToken("user-1", "user@example.com", 0);
+
+        // Act & Assert
+        assertTrue(jwtUtil.parseToken(token).isEmpty());
+    }
+
+    @Test
+    void parseToken_ShouldRecordThroughputMetrics() {
+        // Arrange
+        String token = jwtUtil.generateToken("user-1", "user@example.com", 0);
+
+        // Act
+        jwtUtil.parseToken(token);
+        jwtUtil.parseToken("not-a-jwt");
+
+        // Assert
+        assertEquals(1, meterRegistry.get("auth.jwt.sign").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.parse").tag("result", "valid").timer().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.parse").tag("result", "invalid").timer().count());
+    }
+
+    @Test
+    void es256_ShouldVerifyTokensFromRotatedOutKeyAndLegacyHmacTokens() {
+        // Arrange
+        KeyPair oldKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        KeyPair newKey = Keys.keyPairFor(SignatureAlgorithm.ES256);
+
+        JwtSigningProperties before = new JwtSigningProperties();
+        before.setAlgorithm("ES256");
+        before.setActiveKid("old");
+        before.setKeys(List.of(signingKey("old", oldKey, true)));
+
+        JwtSigningProperties after = new JwtSigningProperties();
+        after.setAlgorithm("ES256");
+        after.setActiveKid("new");
+        after.setAcceptLegacyHmac(true);
+        after.setKeys(List.of(signingKey("old", oldKey, false), signingKey("new", newKey, true)));
+
+        String legacyToken = jwtUtil.generateToken("user-0", "legacy@example.com", 0);
+        String oldToken = createJwtUtil(before).generateToken("user-1", "old@example.com", 0);
+        JwtUtil rotated = createJwtUtil(after);
+        String newToken = rotated.generateToken("user-2", "new@example.com", 0);
+
+        // Act & Assert
+        assertEquals("user-0", rotated.getUserIdFromToken(legacyToken));
+        assertEquals("user-1", rotated.getUserIdFromToken(oldToken));
+        assertEquals("user-2", rotated.getUserIdFromToken(newToken));
+        assertTrue(createJwtUtil(before).parseToken(newToken).isEmpty());
+    }
+
+    @Test
+    void es256_WithoutLegacyHmac_ShouldRejectTokensWithoutKid() {
+        // Arrange
+        KeyPair key = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        JwtSigningProperties properties = new JwtSigningProperties();
+        properties.setAlgorithm("ES256");
+        properties.setActiveKid("a");
+        properties.setKeys(List.of(signingKey("a", key, true)));
+
+        String legacyToken = jwtUtil.generateToken("user-0", "legacy@example.com", 0);
+        JwtUtil es256 = createJwtUtil(properties);
+
+        // Act & Assert
+        assertTrue(es256.parseToken(legacyToken).isEmpty());
+        assertTrue(es256.parseToken(es256.generateToken("user-1", "a@example.com", 0)).isPresent());
+    }
+
+    @Test
+    void es256_ShouldPublishAllPublicKeysAsJwks() {
+        // Arrange
+        JwtSigningProperties properties = new JwtSigningProperties();
+        properties.setAlgorithm("ES256");
+        properties.setActiveKid("b");
+        properties.setKeys(List.of(
+                signingKey("a", Keys.keyPairFor(SignatureAlgorithm.ES256), false),
+                signingKey("b", Keys.keyPairFor(SignatureAlgorithm.ES256), true)));
+
+        JwtKeyStore keyStore = new JwtKeyStore(properties);
+        ReflectionTestUtils.setField(keyStore, "secret", SECRET);
+        ReflectionTestUtils.invokeMethod(keyStore, "init");
+
+        // Act
+        List<Map<String, Object>> jwks = keyStore.getJwks();
+
+        // Assert
+        assertEquals(2, jwks.size());
+        assertEquals("EC", jwks.get(0).get("kty"));
+        assertEquals("P-256", jwks.get(0).get("crv"));
+        assertEquals(43, ((String) jwks.get(1).get("x")).length());
+        assertEquals("b", jwks.get(1).get("kid"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.service.LastLoginBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginBufferTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LastLoginBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new LastLoginBuffer(userRepository, meterRegistry);
+        ReflectionTestUtils.setField(buffer, "maxPending", 3);
+        ReflectionTestUtils.setField(buffer, "capacity", 5);
+        ReflectionTestUtils.setField(buffer, "flushInterval", 60000L);
+        ReflectionTestUtils.invokeMethod(buffer, "init");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, LocalDateTime> flushedBatch() {
+        ArgumentCaptor<Map<String, LocalDateTime>> batch = ArgumentCaptor.forClass(Map.class);
+        verify(userRepository).recordLastLogins(batch.capture());
+        return batch.getValue();
+    }
+
+    @Test
+    void flush_ShouldWriteOneLatestValuePerUser() {
+        // Arrange
+        buffer.record("u1", NOW);
+        buffer.record("u1", NOW.plusSeconds(5));
+        buffer.record("u1", NOW.plusSeconds(2));
+        buffer.record("u2", NOW);
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(Map.of("u1", NOW.plusSeconds(5), "u2", NOW), flushedBatch());
+        assertEquals(0.0, meterRegistry.get("auth.lastlogin.pending").gauge().value());
+        assertEquals(2.0, meterRegistry.get("auth.lastlogin.flushed").counter().count());
+    }
+
+    @Test
+    void record_ShouldNotWriteUntilFlushed() {
+        // Act
+        buffer.record("u1", NOW);
+
+        // Assert
+        verifyNoInteractions(userRepository);
+        assertEquals(1.0, meterRegistry.get("auth.lastlogin.pending").gauge().value());
+    }
+
+    @Test
+    void latest_ShouldPreferTheBufferedLoginOverTheStaleStoredOne() {
+        // Arrange
+        buffer.record("u1", NOW);
+
+        // Act & Assert
+        assertEquals(NOW, buffer.latest("u1", NOW.minusDays(1)));
+        assertEquals(NOW.plusSeconds(1), buffer.latest("u1", NOW.plusSeconds(1)));
+        assertEquals(NOW.minusDays(1), buffer.latest("u2", NOW.minusDays(1)));
+        assertNull(buffer.latest(null, null));
+    }
+
+    @Test
+    void record_WhenBufferFull_ShouldFlushInline() {
+        // Act
+        buffer.record("u1", NOW);
+        buffer.record("u2", NOW);
+        buffer.record("u3", NOW);
+
+        // Assert
+        assertEquals(3, flushedBatch().size());
+    }
+
+    @Test
+    void flush_WhenWriteFails_ShouldKeepEntriesForNextFlush() {
+        // Arrange
+        buffer.record("u1", NOW);
+        doThrow(new DataAccessResourceFailureException("down")).doNothing().when(userRepository).recordLastLogins(anyMap());
+
+        // Act
+        buffer.flush();
+        buffer.flush();
+
+        // Assert
+        verify(userRepository, times(2)).recordLastLogins(Map.of("u1", NOW));
+        assertEquals(1.0, meterRegistry.get("auth.lastlogin.flush.failures").counter().count());
+    }
+
+    @Test
+    void record_AfterFailedFlush_ShouldNotFlushInlineUntilIntervalPasses() {
+        // Arrange
+        doThrow(new DataAccessResourceFailureException("down")).when(userRepository).recordLastLogins(anyMap());
+        buffer.record("u1", NOW);
+        buffer.record("u2", NOW);
+        buffer.record("u3", NOW);
+
+        // Act
+        buffer.record("u4", NOW);
+        buffer.record("u1", NOW.plusSeconds(1));
+
+        // Assert
+        verify(userRepository, times(1)).recordLastLogins(anyMap());
+        assertEquals(4.0, meterRegistry.get("auth.lastlogin.pending").gauge().value());
+    }
+
+    @Test
+    void record_WhenAtCapacity_ShouldDropNewUsersButKeepUpdatingBufferedOnes() {
+        // Arrange
+        ReflectionTestUtils.setField(buffer, "maxPending", 100);
+        ReflectionTestUtils.setField(buffer, "capacity", 2);
+        buffer.record("u1", NOW);
+        buffer.record("u2", NOW);
+
+        // Act
+        buffer.record("u3", NOW);
+        buffer.record("u1", NOW.plusSeconds(5));
+        buffer.flush();
+
+        // Assert
+        assertEquals(Map.of("u1", NOW.plusSeconds(5), "u2", NOW), flushedBatch());
+        assertEquals(1.0, meterRegistry.get("auth.lastlogin.dropped").counter().count());
+    }
+}
@@ -0,0 +1,69 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.security.LocalBucketStore;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBucketStoreTest {
+
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1))))
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void resolve_WithSameKey_ShouldShareBucket() {
+        // Arrange
+        LocalBucketStore store = new LocalBucketStore(100, Duration.ofMinutes(2), meterRegistry);
+
+        // Act
+        Bucket first = store.resolve("10.0.0.1", CONFIGURATION);
+        first.tryConsume(10);
+        Bucket second = store.resolve("10.0.0.1", CONFIGURATION);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(90, second.getAvailableTokens());
+    }
+
+    @Test
+    void resolve_WithMillionsOfDistinctKeys_ShouldStayWithinCap() {
+        // Arrange
+        LocalBucketStore store = new LocalBucketStore(10_000, Duration.ofMinutes(2), meterRegistry);
+
+        // Act: a scan from two million addresses
+        for (int i = 0; i < 2_000_000; i++) {
+            store.resolve("scan-" + i, CONFIGURATION).tryConsume(1);
+        }
+        store.cleanUp();
+
+        // Assert
+        assertTrue(store.trackedKeys() <= 10_000);
+        assertEquals(store.trackedKeys(), meterRegistry.get("cache.size").tag("cache", "rate-limit-buckets").gauge().value());
+        assertTrue(meterRegistry.get("cache.evictions").tag("cache", "rate-limit-buckets").functionCounter().count() >= 1_990_000);
+    }
+
+    @Test
+    void resolve_AfterIdleTimeout_ShouldForgetBucket() throws InterruptedException {
+        // Arrange
+        LocalBucketStore store = new LocalBucketStore(100, Duration.ofMillis(50), meterRegistry);
+        store.resolve("10.0.0.1", CONFIGURATION).tryConsume(100);
+
+        // Act
+        Thread.sleep(150);
+        store.cleanUp();
+
+        // Assert
+        assertEquals(0, store.trackedKeys());
+        assertEquals(100, store.resolve("10.0.0.1", CONFIGURATION).getAvailableTokens());
+    }
+}
@@ -0,0 +1,200 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.exception.custom.LoginThrottledException;
+import com.musicapp.auth_service.security.LoginAttemptTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.ReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptTrackerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = newTracker();
+        setTime(START);
+    }
+
+    private LoginAttemptTracker newTracker() {
+        LoginAttemptTracker tracker = new LoginAttemptTracker(mongoTemplate, meterRegistry);
+        ReflectionTestUtils.setField(tracker, "freeAttempts", 3);
+        ReflectionTestUtils.setField(tracker, "baseLockout", 30_000L);
+        ReflectionTestUtils.setField(tracker, "maxLockout", 120_000L);
+        ReflectionTestUtils.setField(tracker, "resetAfter", 3_600_000L);
+        ReflectionTestUtils.setField(tracker, "width", 1024);
+        ReflectionTestUtils.setField(tracker, "depth", 4);
+        ReflectionTestUtils.setField(tracker, "maxFill", 0.5);
+        ReflectionTestUtils.setField(tracker, "maxUnknownIdentities", 10_000L);
+        ReflectionTestUtils.invokeMethod(tracker, "init");
+        return tracker;
+    }
+
+    private void setTime(Instant instant) {
+        ReflectionTestUtils.setField(tracker, "clock", Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private void fail(String identity, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordFailure(identity);
+        }
+    }
+
+    @Test
+    void checkAllowed_ShouldLockOutAfterFreeAttempts() {
+        // Arrange
+        fail("victim@example.com", 2);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> tracker.checkAllowed("victim@example.com"));
+
+        tracker.recordFailure("victim@example.com");
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> tracker.checkAllowed("Victim@Example.com "));
+        assertEquals(30, ex.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> tracker.checkAllowed("someone-else@example.com"));
+        assertEquals(1.0, meterRegistry.get("auth.login.throttled").counter().count());
+    }
+
+    @Test
+    void checkAllowed_ShouldDoubleLockoutUpToTheMaximum() {
+        // Arrange
+        fail("victim@example.com", 4);
+
+        // Act & Assert
+        assertEquals(60, assertThrows(LoginThrottledException.class,
+                () -> tracker.checkAllowed("victim@example.com")).getRetryAfterSeconds());
+
+        fail("victim@example.com", 5);
+        assertEquals(120, assertThrows(LoginThrottledException.class,
+                () -> tracker.checkAllowed("victim@example.com")).getRetryAfterSeconds());
+
+        setTime(START.plus(Duration.ofMinutes(2)));
+        assertDoesNotThrow(() -> tracker.checkAllowed("victim@example.com"));
+    }
+
+    @Test
+    void recordAccountSuccess_ShouldClearFailures() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            tracker.recordAccountFailure("user-1");
+        }
+        setTime(START.plusSeconds(30));
+
+        // Act
+        tracker.recordAccountSuccess("user-1");
+        tracker.recordAccountFailure("user-1");
+
+        // Assert
+        assertDoesNotThrow(() -> tracker.checkAccountAllowed("user-1"));
+    }
+
+    @Test
+    void checkAccountAllowed_ShouldNotShareCountsWithTypedIdentities() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            tracker.recordAccountFailure("user-1");
+        }
+
+        // Act & Assert
+        assertThrows(LoginThrottledException.class, () -> tracker.checkAccountAllowed("user-1"));
+        assertDoesNotThrow(() -> tracker.checkAllowed("user-1"));
+        assertDoesNotThrow(() -> tracker.checkAllowed("a:user-1"));
+    }
+
+    @Test
+    void recordFailure_SprayingUnknownIdentities_ShouldNotLockOutAccounts() {
+        // Arrange
+        tracker.recordAccountFailure("user-1");
+
+        // Act
+        for (int i = 0; i < 5_000; i++) {
+            fail("nobody-" + i + "@example.com", 3);
+        }
+        tracker.checkSaturation();
+
+        // Assert
+        assertDoesNotThrow(() -> tracker.checkAccountAllowed("user-1"));
+        assertDoesNotThrow(() -> tracker.checkAccountAllowed("user-2"));
+        assertThrows(LoginThrottledException.class, () -> tracker.checkAllowed("nobody-42@example.com"));
+        // Only user-1's four cells are in use
+        assertEquals(4.0 / (1024 * 4), meterRegistry.get("auth.login.attempts.sketch.fill").gauge().value());
+    }
+
+    @Test
+    void checkAccountAllowed_WhenSketchSaturated_ShouldStopEnforcing() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            tracker.recordAccountFailure("user-1");
+        }
+        for (int i = 0; i < 5_000; i++) {
+            tracker.recordAccountFailure("user-" + i + "-other");
+        }
+
+        // Act
+        tracker.checkSaturation();
+
+        // Assert
+        assertDoesNotThrow(() -> tracker.checkAccountAllowed("user-1"));
+        assertEquals(1.0, meterRegistry.get("auth.login.attempts.sketch.saturated").gauge().value());
+        assertTrue(meterRegistry.get("auth.login.attempts.sketch.fill").gauge().value() > 0.5);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void persist_ShouldKeepOneSnapshotPerInstance() {
+        // Arrange
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        when(mongoTemplate.getCollection("login_attempts")).thenReturn(collection);
+        LoginAttemptTracker other = newTracker();
+        ArgumentCaptor<Document> snapshots = ArgumentCaptor.forClass(Document.class);
+
+        // Act
+        tracker.persist();
+        other.persist();
+
+        // Assert
+        verify(collection, times(2)).replaceOne(any(Bson.class), snapshots.capture(), any(ReplaceOptions.class));
+        assertNotEquals(snapshots.getAllValues().get(0).get("_id"), snapshots.getAllValues().get(1).get("_id"));
+    }
+
+    @Test
+    void checkAllowed_ShouldForgetFailuresAfterResetWindow() {
+        // Arrange
+        fail("user@example.com", 3);
+
+        // Act
+        setTime(START.plus(Duration.ofHours(2)));
+        tracker.recordFailure("user@example.com");
+
+        // Assert
+        assertDoesNotThrow(() -> tracker.checkAllowed("user@example.com"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.musicapp.auth_service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.musicapp.auth_service.config.MigrationProperties;
+import com.musicapp.auth_service.migration.Migration;
+import com.musicapp.auth_service.migration.MigrationRunner;
+import com.musicapp.auth_service.model.SchemaMigration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationRunnerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MigrationProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new MigrationProperties();
+        properties.setBatchSize(2);
+        properties.setBatchPause(0);
+    }
+
+    private MigrationRunner runner(Migration... migrations) {
+        MigrationRunner runner = new MigrationRunner(List.of(migrations), mongoTemplate, properties, meterRegistry);
+        ReflectionTestUtils.invokeMethod(runner, "init");
+        return runner;
+    }
+
+    private static Migration migration(int version) {
+        return new Migration() {
+            @Override
+            public int version() {
+                return version;
+            }
+
+            @Override
+            public String description() {
+                return "Add flag";
+            }
+
+            @Override
+            public String collection() {
+                return "users";
+            }
+
+            @Override
+            public Criteria pending() {
+                return Criteria.where("flag").exists(false);
+            }
+
+            @Override
+            public List<String> fields() {
+                return List.of();
+            }
+
+            @Override
+            public Update migrate(Document document) {
+                return new Update().set("flag", true);
+            }
+        };
+    }
+
+    private static SchemaMigration state(int version, Object lastId, long processed) {
+        return new SchemaMigration(version, "Add flag", SchemaMigration.Status.RUNNING, lastId, processed, 0,
+                "me", LocalDateTime.now().plusMinutes(5), LocalDateTime.now(), null);
+    }
+
+    @Test
+    void runAll_ShouldMigrateInBatchesAndCheckpointEachOne() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SchemaMigration.class))).thenReturn(state(1, null, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users")))
+                .thenReturn(List.of(new Document("_id", 1), new Document("_id", 2)))
+                .thenReturn(List.of(new Document("_id", 3)))
+                .thenReturn(List.of());
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, "users")).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(2, 1);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SchemaMigration.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        // Act
+        runner(migration(1)).runAll();
+
+        // Assert
+        verify(bulkOperations, times(3)).updateOne(any(Query.class), any(Update.class));
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(3)).updateFirst(any(Query.class), updates.capture(), eq(SchemaMigration.class));
+        assertEquals(2, updates.getAllValues().get(0).getUpdateObject().get("$set", Document.class).get("lastId"));
+        assertEquals(SchemaMigration.Status.COMPLETED,
+                updates.getAllValues().get(2).getUpdateObject().get("$set", Document.class).get("status"));
+        assertEquals(3.0, meterRegistry.get("auth.migration.documents").tag("outcome", "modified").counter().count());
+        assertEquals(1.0, meterRegistry.get("auth.migration.schema.version").gauge().value());
+    }
+
+    @Test
+    void runAll_ShouldResumeAfterCheckpoint() {
+        // Arrange
+        when(mongoTemplate.findById(1, SchemaMigration.class)).thenReturn(state(1, 41, 41));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SchemaMigration.class))).thenReturn(state(1, 41, 41));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users"))).thenReturn(List.of());
+
+        // Act
+        runner(migration(1)).runAll();
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Document.class), eq("users"));
+        assertTrue(query.getValue().getQueryObject().toJson().contains("\"$gt\": 41"));
+        verify(mongoTemplate, never()).insert(any(SchemaMigration.class));
+    }
+
+    @Test
+    void runAll_WhenHeldByAnotherInstance_ShouldStopBeforeLaterMigrations() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SchemaMigration.class))).thenReturn(null);
+
+        // Act
+        boolean retry = runner(migration(2), migration(1)).runAll();
+
+        // Assert
+        assertTrue(retry);
+        verify(mongoTemplate).findById(1, SchemaMigration.class);
+        verify(mongoTemplate, never()).findById(2, SchemaMigration.class);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), any(String.class));
+    }
+
+    @Test
+    void start_WhenHeldByAnotherInstance_ShouldRetryAndTakeOverOnceLeaseLapses() {
+        // Arrange: the owner holds the lease on the first attempt and has stopped renewing it by the second
+        properties.setLease(10);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SchemaMigration.class))).thenReturn(null).thenReturn(state(1, null, 0));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users"))).thenReturn(List.of());
+        MigrationRunner runner = runner(migration(1));
+
+        // Act
+        runner.start();
+
+        // Assert
+        try {
+            verify(mongoTemplate, timeout(2000)).updateFirst(any(Query.class), any(Update.class), eq(SchemaMigration.class));
+            verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+                    any(FindAndModifyOptions.class), eq(SchemaMigration.class));
+        } finally {
+            ReflectionTestUtils.invokeMethod(runner, "stop");
+        }
+    }
+
+    @Test
+    void init_WithDuplicateVersions_ShouldFail() {
+        assertThrows(IllegalStateException.class, () -> runner(migration(1), migration(1)));
+    }
+}
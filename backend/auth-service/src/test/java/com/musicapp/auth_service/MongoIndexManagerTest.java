@@ -0,0 +1,165 @@
+package com.musicapp.auth_service;
+
+import com.mongodb.MongoException;
+import com.musicapp.auth_service.config.MongoIndexManager;
+import com.musicapp.auth_service.security.MongoProxyManager;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexOptions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoIndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private ObjectProvider<MongoProxyManager> mongoProxyManager;
+
+    private final Map<String, InMemoryIndexOperations> collections = new HashMap<>();
+    private MongoIndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        lenient().when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        lenient().when(mongoTemplate.indexOps(anyString())).thenAnswer(invocation ->
+                collections.computeIfAbsent(invocation.getArgument(0), name -> new InMemoryIndexOperations()));
+        // $indexStats requires a privileged role; the manager must cope without it
+        lenient().when(mongoTemplate.getCollection(anyString())).thenThrow(new MongoException("not authorized"));
+        indexManager = new MongoIndexManager(mongoTemplate, mongoProxyManager);
+    }
+
+    @Test
+    void ensureIndexes_ShouldCreateDeclaredIndexesAndReportUp() {
+        // Act
+        indexManager.ensureIndexes();
+
+        // Assert
+        List<String> userIndexes = collections.get("users").getIndexInfo().stream().map(IndexInfo::getName).toList();
+        assertTrue(userIndexes.containsAll(List.of("email", "username", "passwordResetToken",
+                "emailVerificationToken", "tokenVersion", "status_deactivationRequestedAt", "provider_providerId")));
+        assertFalse(collections.get("refresh_tokens").getIndexInfo().isEmpty());
+        assertFalse(collections.get("revoked_tokens").getIndexInfo().isEmpty());
+        assertEquals(List.of("codeHash", "expiresAt"),
+                collections.get("oauth_login_codes").getIndexInfo().stream().map(IndexInfo::getName).sorted().toList());
+
+        Health health = indexManager.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(List.of(), health.getDetails().get("missing"));
+    }
+
+    @Test
+    void verify_WithCriticalIndexDropped_ShouldReportDown() {
+        // Arrange
+        indexManager.ensureIndexes();
+        collections.get("users").dropIndex("email");
+        collections.get("users").dropIndex("passwordResetToken");
+
+        // Act
+        indexManager.verify();
+
+        // Assert
+        Health health = indexManager.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals(List.of("users {\"email\": 1}"), health.getDetails().get("missingCritical"));
+        assertEquals(List.of("users {\"passwordResetToken\": 1}"), health.getDetails().get("missing"));
+    }
+
+    @Test
+    void verify_WithUndeclaredIndex_ShouldReportItAsUnmanaged() {
+        // Arrange
+        indexManager.ensureIndexes();
+        collections.get("users").add(new Document("key", new Document("legacyField", 1)).append("name", "legacyField_1"));
+
+        // Act
+        indexManager.verify();
+
+        // Assert
+        Health health = indexManager.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(List.of("users legacyField_1"), health.getDetails().get("unmanaged"));
+    }
+
+    @Test
+    void ensureIndexes_WhenMongoUnreachable_ShouldReportDown() {
+        // Arrange
+        when(mongoTemplate.indexOps(anyString())).thenThrow(new DataAccessResourceFailureException("timeout"));
+
+        // Act
+        indexManager.ensureIndexes();
+
+        // Assert
+        assertEquals(Status.DOWN, indexManager.health().getStatus());
+    }
+
+    // Keeps index definitions the way the server reports them back
+    private static class InMemoryIndexOperations implements IndexOperations {
+
+        private final List<Document> indexes = new ArrayList<>();
+
+        void add(Document index) {
+            indexes.add(index);
+        }
+
+        @Override
+        public String createIndex(IndexDefinition indexDefinition) {
+            Document options = indexDefinition.getIndexOptions();
+            String name = options.getString("name");
+            if (name == null) {
+                name = String.join("_", indexDefinition.getIndexKeys().keySet()) + "_1";
+            }
+            indexes.removeIf(index -> index.getString("name").equals(options.getString("name")));
+            indexes.add(new Document("key", indexDefinition.getIndexKeys())
+                    .append("name", name)
+                    .append("unique", options.getBoolean("unique", false)));
+            return name;
+        }
+
+        @Override
+        public void alterIndex(String name, IndexOptions options) {
+        }
+
+        @Override
+        public void dropIndex(String name) {
+            indexes.removeIf(index -> index.getString("name").equals(name));
+        }
+
+        @Override
+        public void dropAllIndexes() {
+            indexes.clear();
+        }
+
+        @Override
+        public List<IndexInfo> getIndexInfo() {
+            return indexes.stream().map(IndexInfo::indexInfoOf).toList();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.musicapp.auth_service;
+
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.musicapp.auth_service.security.MongoProxyManager;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.distributed.AsyncBucketProxy;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MongoProxyManagerTest {
+
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(20, Refill.intervally(20, Duration.ofMinutes(1))))
+            .build();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private FindIterable<Document> findIterable;
+
+    @Test
+    void asyncBucket_ShouldRunCompareAndSwapOnTheGivenExecutor() throws Exception {
+        // Arrange
+        List<Runnable> submitted = new CopyOnWriteArrayList<>();
+        Executor executor = task -> {
+            submitted.add(task);
+            task.run();
+        };
+        when(mongoTemplate.getCollection(MongoProxyManager.COLLECTION)).thenReturn(collection);
+        when(collection.find(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.projection(any(Bson.class))).thenReturn(findIterable);
+        when(findIterable.first()).thenReturn(null);
+        MongoProxyManager proxyManager = new MongoProxyManager(mongoTemplate, Duration.ofMinutes(2), executor);
+        AsyncBucketProxy bucket = proxyManager.asAsync().builder().build("ip:1.2.3.4", CONFIGURATION);
+
+        // Act
+        boolean consumed = bucket.tryConsume(1).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(proxyManager.isAsyncModeSupported());
+        assertTrue(consumed);
+        verify(collection).insertOne(any(Document.class));
+        // The driver calls were handed to the executor instead of running on the caller
+        assertFalse(submitted.isEmpty());
+    }
+}
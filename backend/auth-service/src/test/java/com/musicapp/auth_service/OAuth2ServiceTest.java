@@ -0,0 +1,108 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.dto.response.OAuth2UserInfo;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import com.musicapp.auth_service.security.UserPrincipalService;
+import com.musicapp.auth_service.service.AccountStatsService;
+import com.musicapp.auth_service.service.LastLoginBuffer;
+import com.musicapp.auth_service.service.OAuth2Service;
+import com.musicapp.auth_service.service.OAuthLoginCodeService;
+import com.musicapp.auth_service.service.UserSearchIndex;
+import com.musicapp.auth_service.service.UsernameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OAuth2ServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserPrincipalService userPrincipalService;
+
+    @Mock
+    private LastLoginBuffer lastLoginBuffer;
+
+    @Mock
+    private OAuthLoginCodeService oAuthLoginCodeService;
+
+    @Mock
+    private AccountNameIndex accountNameIndex;
+
+    @Mock
+    private UsernameGenerator usernameGenerator;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private AccountStatsService accountStatsService;
+
+    @InjectMocks
+    private OAuth2Service oAuth2Service;
+
+    @Test
+    void processOAuth2User_WithLoginStillBuffered_ShouldCountFromTheBufferedDay() {
+        // Arrange
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        LocalDateTime earlierToday = LocalDateTime.now().minusSeconds(1);
+        User linked = new User();
+        linked.setId("user-1");
+        linked.setProvider("google");
+        linked.setStatus(AccountStatus.ACTIVE);
+        // Not flushed yet: Mongo still has yesterday's login
+        linked.setLastLogin(yesterday);
+        when(userRepository.findByProviderAndProviderId("google", "google-1")).thenReturn(Optional.of(linked));
+        when(lastLoginBuffer.latest("user-1", yesterday)).thenReturn(earlierToday);
+
+        // Act
+        oAuth2Service.processOAuth2User(new OAuth2UserInfo("google-1", "test@example.com", "Tester", null), "google");
+
+        // Assert
+        verify(accountStatsService).recordLogin(eq(earlierToday), any(LocalDateTime.class));
+    }
+
+    @Test
+    void processOAuth2User_LinkingExistingAccount_ShouldKeepTokenVersion() {
+        // Arrange
+        User existing = new User();
+        existing.setId("user-1");
+        existing.setEmail("test@example.com");
+        existing.setUsername("tester");
+        existing.setProvider("local");
+        existing.setStatus(AccountStatus.PENDING_VERIFICATION);
+        // Bumped by an earlier password reset
+        ReflectionTestUtils.setField(existing, "tokenVersion", 1L);
+        OAuth2UserInfo userInfo = new OAuth2UserInfo("google-1", "test@example.com", "Tester", "https://example.com/a.png");
+        when(userRepository.findByProviderAndProviderId("google", "google-1")).thenReturn(Optional.empty());
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(existing));
+        when(oAuthLoginCodeService.issue("user-1")).thenReturn("code");
+
+        // Act
+        String code = oAuth2Service.processOAuth2User(userInfo, "google");
+
+        // Assert
+        assertEquals("code", code);
+        // save() would write the document without the read-only tokenVersion, resetting it to 0
+        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository).linkProvider("user-1", "google", "google-1", AccountStatus.ACTIVE, "https://example.com/a.png");
+        verify(lastLoginBuffer).record(eq("user-1"), any(LocalDateTime.class));
+        verify(userPrincipalService).evict("user-1");
+    }
+}
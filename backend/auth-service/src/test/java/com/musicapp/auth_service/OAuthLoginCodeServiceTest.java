@@ -0,0 +1,78 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.exception.custom.InvalidCredentialsException;
+import com.musicapp.auth_service.model.OAuthLoginCode;
+import com.musicapp.auth_service.service.OAuthLoginCodeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OAuthLoginCodeServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private OAuthLoginCodeService oAuthLoginCodeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(oAuthLoginCodeService, "expiration", 60000L);
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheCodeHash() {
+        // Act
+        String code = oAuthLoginCodeService.issue("user-1");
+
+        // Assert
+        ArgumentCaptor<OAuthLoginCode> saved = ArgumentCaptor.forClass(OAuthLoginCode.class);
+        verify(mongoTemplate).insert(saved.capture());
+        assertNotNull(code);
+        assertNotEquals(code, saved.getValue().getCodeHash());
+        assertEquals("user-1", saved.getValue().getUserId());
+        assertTrue(saved.getValue().getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(2)));
+    }
+
+    @Test
+    void redeem_ShouldConsumeTheCodeAtomically() {
+        // Arrange
+        String code = oAuthLoginCodeService.issue("user-1");
+        ArgumentCaptor<OAuthLoginCode> saved = ArgumentCaptor.forClass(OAuthLoginCode.class);
+        verify(mongoTemplate).insert(saved.capture());
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(OAuthLoginCode.class))).thenReturn(saved.getValue());
+
+        // Act
+        String userId = oAuthLoginCodeService.redeem(code);
+
+        // Assert
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndRemove(query.capture(), eq(OAuthLoginCode.class));
+        assertEquals("user-1", userId);
+        assertEquals(saved.getValue().getCodeHash(), query.getValue().getQueryObject().getString("codeHash"));
+    }
+
+    @Test
+    void redeem_WithUnknownExpiredOrUsedCode_ShouldThrow() {
+        // Arrange
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(OAuthLoginCode.class))).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(InvalidCredentialsException.class, () -> oAuthLoginCodeService.redeem("used-code"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.config.PasswordHashingProperties;
+import com.musicapp.auth_service.config.SecurityConfig;
+import com.musicapp.auth_service.security.BCryptCalibrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingProperties properties;
+    private PasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PasswordHashingProperties();
+        properties.getBcrypt().setStrength(5);
+        encoder = new SecurityConfig(null, null, null, null, null).passwordEncoder(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ((AutoCloseable) encoder).close();
+    }
+
+    @Test
+    void encode_ShouldUseConfiguredAlgorithmAndCost() {
+        // Act
+        String hash = encoder.encode("password123");
+
+        // Assert
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("password123", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+        assertEquals(5.0, meterRegistry.get("auth.password.bcrypt.strength").gauge().value());
+    }
+
+    @Test
+    void matches_WithLegacyHashes_ShouldVerifyAndRequestUpgrade() {
+        // Arrange
+        String unprefixed = new BCryptPasswordEncoder(4).encode("password123");
+        String lowerCost = "{bcrypt}" + unprefixed;
+        String argon2 = "{argon2}" + Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("password123");
+
+        // Act & Assert
+        for (String hash : new String[]{unprefixed, lowerCost, argon2}) {
+            assertTrue(encoder.matches("password123", hash), hash);
+            assertTrue(encoder.upgradeEncoding(hash), hash);
+        }
+    }
+
+    @Test
+    void calibrate_ShouldStayWithinBoundsAndBudget() {
+        // Act
+        int noBudget = BCryptCalibrator.calibrate(Duration.ZERO, 4);
+        int generous = BCryptCalibrator.calibrate(Duration.ofMillis(200), 4);
+
+        // Assert
+        assertEquals(4, noBudget);
+        assertTrue(generous > 4 && generous <= BCryptCalibrator.MAX_STRENGTH);
+    }
+}
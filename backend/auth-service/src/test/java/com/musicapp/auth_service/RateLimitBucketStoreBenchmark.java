@@ -0,0 +1,72 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.security.LocalBucketStore;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bucket lookups per second under a scan (every key new) and under steady traffic from a fixed client set.
+ * The fork runs with a 256 MB heap: the scan pushes tens of millions of distinct keys through the store,
+ * which only completes because the tracked set stays at the cap. Run with
+ * {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@Threads(2)
+@State(Scope.Benchmark)
+public class RateLimitBucketStoreBenchmark {
+
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1))))
+            .build();
+
+    private static final int MAX_KEYS = 100_000;
+    private static final int ACTIVE_CLIENTS = 10_000;
+
+    private final AtomicLong scanCounter = new AtomicLong();
+    private LocalBucketStore store;
+
+    @Setup
+    public void setUp() {
+        store = new LocalBucketStore(MAX_KEYS, Duration.ofMinutes(2), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.cleanUp();
+        System.out.printf("%n%,d distinct keys seen, %,d tracked%n", scanCounter.get(), store.trackedKeys());
+    }
+
+    @Benchmark
+    public boolean scan() {
+        return store.resolve("scan-" + scanCounter.incrementAndGet(), CONFIGURATION).tryConsume(1);
+    }
+
+    @Benchmark
+    public boolean steadyClients() {
+        int client = ThreadLocalRandom.current().nextInt(ACTIVE_CLIENTS);
+        return store.resolve("client-" + client, CONFIGURATION).tryConsume(1);
+    }
+}
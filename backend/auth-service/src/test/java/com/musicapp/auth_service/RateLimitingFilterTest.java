@@ -0,0 +1,216 @@
+package com.musicapp.auth_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.musicapp.auth_service.config.RateLimitProperties;
+import com.musicapp.auth_service.security.JwtAuthenticationFilter;
+import com.musicapp.auth_service.security.LocalBucketStore;
+import com.musicapp.auth_service.security.RateLimitBucketStore;
+import com.musicapp.auth_service.security.RateLimitingFilter;
+import com.musicapp.auth_service.security.TokenClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RateLimitingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitProperties properties;
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setPolicies(List.of(
+                policy("ip", RateLimitProperties.KeyType.IP, 20),
+                policy("account", RateLimitProperties.KeyType.ACCOUNT, 4),
+                policy("user", RateLimitProperties.KeyType.USER, 5)));
+        properties.setRoutes(List.of(
+                route("/api/auth/login", "POST", "ip", 10),
+                route("/api/auth/login", "POST", "account", 2),
+                route("/api/auth/me", "GET", "user", 1)));
+
+        filter = createFilter(new LocalBucketStore(1000, Duration.ofMinutes(2), meterRegistry));
+    }
+
+    private RateLimitingFilter createFilter(RateLimitBucketStore store) {
+        RateLimitingFilter rateLimitingFilter = new RateLimitingFilter(properties, meterRegistry, new ObjectMapper(), store);
+        ReflectionTestUtils.invokeMethod(rateLimitingFilter, "init");
+        return rateLimitingFilter;
+    }
+
+    private static RateLimitProperties.Policy policy(String name, RateLimitProperties.KeyType key, long capacity) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setKey(key);
+        policy.setCapacity(capacity);
+        return policy;
+    }
+
+    private static RateLimitProperties.Route route(String path, String method, String policy, long cost) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(path);
+        route.setMethod(method);
+        route.setPolicy(policy);
+        route.setCost(cost);
+        return route;
+    }
+
+    private MockHttpServletResponse login(String ip, String account, MockFilterChain chain) throws Exception {
+        return login(new MockHttpServletRequest("POST", "/api/auth/login"), ip, account, chain);
+    }
+
+    // Transfer-Encoding: chunked, so no Content-Length is declared
+    private MockHttpServletResponse chunkedLogin(String ip, String account, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        request.addHeader("Transfer-Encoding", "chunked");
+        return login(request, ip, account, chain);
+    }
+
+    private MockHttpServletResponse login(MockHttpServletRequest request, String ip, String account,
+                                          MockFilterChain chain) throws Exception {
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"emailOrUsername\":\"" + account + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse get(String path, String ip, TokenClaims claims) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(ip);
+        if (claims != null) {
+            request.setAttribute(JwtAuthenticationFilter.CLAIMS_ATTRIBUTE, claims);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void login_ShouldCostMoreThanCheapRequests() throws Exception {
+        // Act & Assert: 20 tokens per IP cover two logins but twenty unmatched requests
+        assertEquals(200, login("10.0.0.1", "a@example.com", new MockFilterChain()).getStatus());
+        assertEquals(200, login("10.0.0.1", "b@example.com", new MockFilterChain()).getStatus());
+        MockHttpServletResponse rejected = login("10.0.0.1", "c@example.com", new MockFilterChain());
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(200, get("/api/songs", "10.0.0.2", null).getStatus());
+        }
+        assertEquals(429, get("/api/songs", "10.0.0.2", null).getStatus());
+        assertEquals(2.0, meterRegistry.get("auth.ratelimit.rejected").tag("policy", "ip").counter().count());
+    }
+
+    @Test
+    void login_ShouldLimitAccountAcrossAddresses() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse first = login("10.0.0.1", "Victim@Example.com", chain);
+        MockHttpServletResponse second = login("10.0.0.2", "victim@example.com", new MockFilterChain());
+        MockHttpServletResponse third = login("10.0.0.3", "victim@example.com ", new MockFilterChain());
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(429, third.getStatus());
+        // The controller still sees the body the filter inspected
+        String replayed = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(replayed.contains("Victim@Example.com"));
+    }
+
+    @Test
+    void chunkedLogin_ShouldStillBeLimitedPerAccount() throws Exception {
+        // Arrange
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse first = chunkedLogin("10.0.0.1", "victim@example.com", chain);
+        MockHttpServletResponse second = chunkedLogin("10.0.0.2", "victim@example.com", new MockFilterChain());
+        MockHttpServletResponse third = chunkedLogin("10.0.0.3", "victim@example.com", new MockFilterChain());
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(429, third.getStatus());
+        String replayed = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(replayed.contains("victim@example.com"));
+    }
+
+    @Test
+    void oversizedLogin_ShouldBeRefusedInsteadOfSkippingTheAccountRule() throws Exception {
+        // Arrange: valid JSON padded past the inspection limit, sent without Content-Length
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse response = chunkedLogin("10.0.0.1", "victim@example.com\",\"pad\":\"" + "x".repeat(20_000), chain);
+
+        // Assert
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void me_ShouldBeLimitedPerUserNotPerAddress() throws Exception {
+        // Arrange
+        Instant now = Instant.now();
+        TokenClaims alice = new TokenClaims("alice", "alice@example.com", now, now.plusSeconds(900), "jti-1", 0);
+        TokenClaims bob = new TokenClaims("bob", "bob@example.com", now, now.plusSeconds(900), "jti-2", 0);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get("/api/auth/me", "10.0.0.1", alice).getStatus());
+        }
+
+        // Assert: same NAT address, different user
+        assertEquals(429, get("/api/auth/me", "10.0.0.1", alice).getStatus());
+        assertEquals(200, get("/api/auth/me", "10.0.0.1", bob).getStatus());
+    }
+
+    @Test
+    void backendFailure_ShouldFollowConfiguredFailureMode() throws Exception {
+        // Arrange
+        RateLimitBucketStore unreachable = mock(RateLimitBucketStore.class);
+        when(unreachable.resolve(anyString(), any())).thenThrow(new IllegalStateException("connection refused"));
+
+        // Act
+        filter = createFilter(unreachable);
+        MockHttpServletResponse open = get("/api/songs", "10.0.0.1", null);
+        properties.setFailureMode(RateLimitProperties.FailureMode.CLOSED);
+        filter = createFilter(unreachable);
+        MockHttpServletResponse closed = get("/api/songs", "10.0.0.1", null);
+
+        // Assert
+        assertEquals(200, open.getStatus());
+        assertEquals(503, closed.getStatus());
+        assertEquals(1.0, meterRegistry.get("auth.ratelimit.backend.errors").tag("failure-mode", "open").counter().count());
+    }
+}
@@ -0,0 +1,113 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.exception.custom.InvalidCredentialsException;
+import com.musicapp.auth_service.exception.custom.TokenExpiredException;
+import com.musicapp.auth_service.model.RefreshToken;
+import com.musicapp.auth_service.repository.RefreshTokenRepository;
+import com.musicapp.auth_service.service.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", 2592000000L);
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheTokenHash() {
+        // Act
+        String token = refreshTokenService.issue("user-1");
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertNotNull(token);
+        assertNotEquals(token, saved.getValue().getTokenHash());
+        assertEquals("user-1", saved.getValue().getUserId());
+        assertNotNull(saved.getValue().getFamilyId());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void rotate_WithUnusedToken_ShouldIssueSuccessorInSameFamily() {
+        // Arrange
+        RefreshToken consumed = refreshToken("family-1", LocalDateTime.now().plusDays(1));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(RefreshToken.class)))
+                .thenReturn(consumed);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("presented-token");
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("user-1", rotation.userId());
+        assertNotEquals("presented-token", rotation.refreshToken());
+        assertEquals("family-1", saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void rotate_WithAlreadyUsedToken_ShouldRevokeFamily() {
+        // Arrange
+        RefreshToken used = refreshToken("family-1", LocalDateTime.now().plusDays(1));
+        used.setUsedAt(LocalDateTime.now().minusMinutes(1));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(RefreshToken.class)))
+                .thenReturn(null);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(used));
+
+        // Act & Assert
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate("stolen-token"));
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_WithExpiredToken_ShouldThrowException() {
+        // Arrange
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(RefreshToken.class)))
+                .thenReturn(refreshToken("family-1", LocalDateTime.now().minusMinutes(1)));
+
+        // Act & Assert
+        assertThrows(TokenExpiredException.class, () -> refreshTokenService.rotate("old-token"));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    private static RefreshToken refreshToken(String familyId, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setUserId("user-1");
+        token.setFamilyId(familyId);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+}
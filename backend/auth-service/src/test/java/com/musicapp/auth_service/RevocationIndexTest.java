@@ -0,0 +1,138 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.RevokedToken;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import com.musicapp.auth_service.repository.RevokedTokenRepository;
+import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.RevocationIndex;
+import com.musicapp.auth_service.security.TokenClaims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RevocationIndex revocationIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revocationIndex = new RevocationIndex(userRepository, revokedTokenRepository, mongoTemplate, meterRegistry);
+        ReflectionTestUtils.setField(revocationIndex, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(revocationIndex, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.invokeMethod(revocationIndex, "init");
+    }
+
+    private static TokenClaims claims(String userId, String tokenId, long tokenVersion) {
+        Instant now = Instant.now();
+        return new TokenClaims(userId, userId + "@example.com", now, now.plusSeconds(900), tokenId, tokenVersion);
+    }
+
+    private static UserView view(String userId, long tokenVersion) {
+        return new UserView(userId, userId + "@example.com", userId, null, AccountStatus.ACTIVE, "local",
+                LocalDateTime.now(), null, tokenVersion);
+    }
+
+    @Test
+    void rebuild_ShouldRejectTokensOlderThanTheStoredVersion() {
+        // Arrange
+        when(userRepository.findViewByTokenVersionGreaterThan(0)).thenReturn(List.of(view("user-1", 2)));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(LocalDateTime.class)))
+                .thenReturn(List.of(new RevokedToken("jti-9", "user-2", LocalDateTime.now().plusMinutes(5))));
+        when(revokedTokenRepository.existsById("jti-9")).thenReturn(true);
+
+        // Act
+        revocationIndex.rebuild();
+
+        // Assert
+        assertTrue(revocationIndex.isRevoked(claims("user-1", "jti-1", 1)));
+        assertFalse(revocationIndex.isRevoked(claims("user-1", "jti-2", 2)));
+        assertTrue(revocationIndex.isRevoked(claims("user-2", "jti-9", 0)));
+        assertEquals(1.0, meterRegistry.get("auth.revocation.users").gauge().value());
+    }
+
+    @Test
+    void revokeUser_ShouldRejectEarlierTokensWithoutDatabaseRead() {
+        // Arrange
+        User updated = new User();
+        updated.setId("user-1");
+        ReflectionTestUtils.setField(updated, "tokenVersion", 1L);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(User.class)))
+                .thenReturn(updated);
+
+        // Act
+        long version = revocationIndex.revokeUser("user-1");
+
+        // Assert
+        assertEquals(1, version);
+        assertTrue(revocationIndex.isRevoked(claims("user-1", "jti-1", 0)));
+        assertFalse(revocationIndex.isRevoked(claims("user-1", "jti-2", 1)));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void revokeToken_ShouldOnlyConsultDatabaseForFilterHits() {
+        // Arrange
+        TokenClaims revoked = claims("user-1", "jti-1", 0);
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        // Act
+        revocationIndex.revokeToken(revoked);
+
+        // Assert
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertTrue(revocationIndex.isRevoked(revoked));
+        assertFalse(revocationIndex.isRevoked(claims("user-1", "jti-2", 0)));
+        assertFalse(revocationIndex.isRevoked(claims("user-1", null, 0)));
+        verify(revokedTokenRepository, never()).existsById("jti-2");
+        assertEquals(1.0, meterRegistry.get("auth.revocation.bloom.entries").gauge().value());
+        assertTrue(meterRegistry.get("auth.revocation.bloom.size").gauge().value() > 0);
+    }
+
+    @Test
+    void isRevoked_WithFalsePositive_ShouldAcceptTokenAndCountIt() {
+        // Arrange
+        TokenClaims token = claims("user-1", "jti-1", 0);
+        revocationIndex.revokeToken(token);
+        // The revocation record was purged after the filter was populated
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(false);
+
+        // Act
+        boolean revoked = revocationIndex.isRevoked(token);
+
+        // Assert
+        assertFalse(revoked);
+        assertEquals(1.0, meterRegistry.get("auth.revocation.bloom.false_positives").counter().count());
+        assertTrue(meterRegistry.get("auth.revocation.bloom.expected_fpp").gauge().value() < 0.001);
+    }
+}
@@ -0,0 +1,99 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.dto.response.RevocationFeedResponse;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.DeactivatedUserView;
+import com.musicapp.auth_service.repository.UserRepository;
+import com.musicapp.auth_service.security.ServiceTokenAuthorizationManager;
+import com.musicapp.auth_service.service.RevocationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private RevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new RevocationService(userRepository);
+        ReflectionTestUtils.setField(revocationService, "pageSize", 2);
+    }
+
+    private static long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    void getRevocationsSince_WithFullPage_ShouldPageOnDeactivationTime() {
+        // Arrange
+        LocalDateTime last = LocalDateTime.now().minusHours(1).withNano(0);
+        when(userRepository.findDeactivatedByStatusAndDeactivatedAtGreaterThanEqualOrderByDeactivatedAtAsc(
+                eq(AccountStatus.DEACTIVATED), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(new DeactivatedUserView("user-1", last.minusMinutes(5)), new DeactivatedUserView("user-2", last)));
+
+        // Act
+        RevocationFeedResponse response = revocationService.getRevocationsSince(0);
+
+        // Assert
+        assertEquals(List.of("user-1", "user-2"), response.getRevokedUserIds());
+        assertTrue(response.isHasMore());
+        assertEquals(millis(last), response.getTimestamp());
+    }
+
+    @Test
+    void getRevocationsSince_WithPartialPage_ShouldReturnCurrentTimeAsCursor() {
+        // Arrange
+        long before = System.currentTimeMillis();
+        when(userRepository.findDeactivatedByStatusAndDeactivatedAtGreaterThanEqualOrderByDeactivatedAtAsc(
+                eq(AccountStatus.DEACTIVATED), any(LocalDateTime.class), eq(Limit.of(2))))
+                .thenReturn(List.of(new DeactivatedUserView("user-1", LocalDateTime.now().minusMinutes(1))));
+
+        // Act
+        RevocationFeedResponse response = revocationService.getRevocationsSince(before - 60000);
+
+        // Assert
+        assertEquals(List.of("user-1"), response.getRevokedUserIds());
+        assertFalse(response.isHasMore());
+        assertTrue(response.getTimestamp() >= before);
+    }
+
+    @Test
+    void serviceToken_ShouldOnlyAdmitCallersPresentingTheConfiguredToken() {
+        // Arrange
+        ServiceTokenAuthorizationManager configured = new ServiceTokenAuthorizationManager("s3cret");
+        ServiceTokenAuthorizationManager unconfigured = new ServiceTokenAuthorizationManager("");
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/api/auth/revocations");
+        MockHttpServletRequest wrong = new MockHttpServletRequest("GET", "/api/auth/revocations");
+        wrong.addHeader(ServiceTokenAuthorizationManager.HEADER, "guess");
+        MockHttpServletRequest service = new MockHttpServletRequest("GET", "/api/auth/revocations");
+        service.addHeader(ServiceTokenAuthorizationManager.HEADER, "s3cret");
+        MockHttpServletRequest empty = new MockHttpServletRequest("GET", "/api/auth/revocations");
+        empty.addHeader(ServiceTokenAuthorizationManager.HEADER, "");
+
+        // Act & Assert
+        assertFalse(configured.check(() -> null, new RequestAuthorizationContext(anonymous)).isGranted());
+        assertFalse(configured.check(() -> null, new RequestAuthorizationContext(wrong)).isGranted());
+        assertTrue(configured.check(() -> null, new RequestAuthorizationContext(service)).isGranted());
+        assertFalse(unconfigured.check(() -> null, new RequestAuthorizationContext(empty)).isGranted());
+    }
+}
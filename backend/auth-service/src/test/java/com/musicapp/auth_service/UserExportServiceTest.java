@@ -0,0 +1,158 @@
+package com.musicapp.auth_service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.musicapp.auth_service.exception.custom.ServiceBusyException;
+import com.musicapp.auth_service.mapper.UserMapper;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import com.musicapp.auth_service.service.UserExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        userExportService = new UserExportService(mongoTemplate, new UserMapper(), objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(userExportService, "batchSize", 2);
+        ReflectionTestUtils.setField(userExportService, "batchPause", 0L);
+        ReflectionTestUtils.setField(userExportService, "maxConcurrent", 1);
+        ReflectionTestUtils.invokeMethod(userExportService, "init");
+    }
+
+    private static UserView view(String id, String username) {
+        return new UserView(id, username + "@example.com", username, null, AccountStatus.ACTIVE, "local",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), null, 0);
+    }
+
+    private ArgumentCaptor<Query> stubUsers(UserView... users) {
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        when(mongoTemplate.stream(query.capture(), eq(UserView.class), eq("users"))).thenReturn(Stream.of(users));
+        return query;
+    }
+
+    private static String run(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void export_AsNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // Arrange
+        UserView[] users = IntStream.range(0, 5).mapToObj(i -> view(new ObjectId().toHexString(), "user" + i))
+                .toArray(UserView[]::new);
+        stubUsers(users);
+
+        // Act
+        String output = run(userExportService.export(UserExportService.Format.NDJSON, null));
+
+        // Assert
+        String[] lines = output.split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[4].startsWith("{\"userId\":\"" + users[4].id() + "\""), lines[4]);
+        assertTrue(lines[0].contains("\"createdAt\":\"2025-01-02T03:04:05\""), lines[0]);
+        assertEquals(5.0, meterRegistry.get("auth.export.rows").counter().count());
+    }
+
+    @Test
+    void export_AsCsv_ShouldQuoteFieldsThatNeedIt() throws Exception {
+        // Arrange
+        UserView user = new UserView("id-1", "a@example.com", "x,\"y\"", null, AccountStatus.ACTIVE, "google",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), null, 0);
+        stubUsers(user);
+
+        // Act
+        String output = run(userExportService.export(UserExportService.Format.CSV, null));
+
+        // Assert
+        assertEquals("userId,email,username,profileImageUrl,status,provider,createdAt,lastLogin\n"
+                + "id-1,a@example.com,\"x,\"\"y\"\"\",,ACTIVE,google,2025-01-02T03:04:05,\n", output);
+    }
+
+    @Test
+    void export_AsCsv_ShouldNeutralizeCellsThatLookLikeFormulas() throws Exception {
+        // Arrange
+        UserView user = new UserView("id-1", "=HYPERLINK(\"http://x\",\"y\")@example.com", "+1", null,
+                AccountStatus.ACTIVE, "-local", LocalDateTime.of(2025, 1, 2, 3, 4, 5), null, 0);
+        UserView other = new UserView("id-2", "@SUM(A1)", "bob-smith", null, AccountStatus.ACTIVE, "local",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), null, 0);
+        stubUsers(user, other);
+
+        // Act
+        String output = run(userExportService.export(UserExportService.Format.CSV, null));
+
+        // Assert
+        assertEquals("userId,email,username,profileImageUrl,status,provider,createdAt,lastLogin\n"
+                + "id-1,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")@example.com\",'+1,,ACTIVE,'-local,2025-01-02T03:04:05,\n"
+                + "id-2,'@SUM(A1),bob-smith,,ACTIVE,local,2025-01-02T03:04:05,\n", output);
+    }
+
+    @Test
+    void export_AfterCursor_ShouldResumePastIt() throws Exception {
+        // Arrange
+        String after = new ObjectId().toHexString();
+        ArgumentCaptor<Query> query = stubUsers();
+
+        // Act
+        run(userExportService.export(UserExportService.Format.NDJSON, after));
+
+        // Assert
+        assertTrue(query.getValue().getQueryObject().toString().contains("$gt=" + after));
+        assertFalse(query.getValue().getFieldsObject().containsKey("password"));
+    }
+
+    @Test
+    void export_BeyondMaxConcurrent_ShouldShedLoadUntilASlotFrees() throws Exception {
+        // Arrange
+        StreamingResponseBody running = userExportService.export(UserExportService.Format.NDJSON, null);
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> userExportService.export(UserExportService.Format.CSV, null));
+        stubUsers();
+        run(running);
+        assertNotNull(userExportService.export(UserExportService.Format.CSV, null));
+    }
+
+    @Test
+    void parse_WithUnknownFormat_ShouldRejectRequest() {
+        // Act & Assert
+        assertEquals(UserExportService.Format.CSV, UserExportService.Format.parse("csv"));
+        assertThrows(ResponseStatusException.class, () -> UserExportService.Format.parse("xml"));
+    }
+}
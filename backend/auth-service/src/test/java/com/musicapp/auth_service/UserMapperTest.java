@@ -0,0 +1,91 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.mapper.UserMapper;
+import com.musicapp.auth_service.model.AccountStatus;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.model.UserView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.RecordComponent;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserMapperTest {
+
+    // Secrets and one-time tokens on User that must never reach the users cache
+    private static final Set<String> CREDENTIAL_FIELDS = Set.of(
+            "password", "passwordResetToken", "passwordResetTokenExpiry",
+            "emailVerificationToken", "emailVerificationTokenExpiry");
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId("user-1");
+        user.setEmail("test@example.com");
+        user.setUsername("tester");
+        user.setPassword("{bcrypt}hash");
+        user.setProfileImageUrl("https://example.com/avatar.png");
+        user.setStatus(AccountStatus.ACTIVE);
+        user.setCreatedAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        user.setLastLogin(LocalDateTime.of(2025, 2, 3, 4, 5, 6));
+        user.setProvider("google");
+        user.setProviderId("google-1");
+        user.setPasswordResetToken("reset-token");
+        user.setEmailVerificationToken("verification-token");
+        ReflectionTestUtils.setField(user, "tokenVersion", 3L);
+    }
+
+    // Builds the view the way the repository projection does: each component from the User field of that name
+    private static UserView project(User user) throws Exception {
+        RecordComponent[] components = UserView.class.getRecordComponents();
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            values[i] = ReflectionTestUtils.getField(user, components[i].getName());
+        }
+        Class<?>[] types = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+        return UserView.class.getDeclaredConstructor(types).newInstance(values);
+    }
+
+    @Test
+    void toUserProfileResponse_FromView_ShouldMatchTheFullEntity() throws Exception {
+        // Act
+        UserView view = project(user);
+
+        // Assert
+        assertEquals(userMapper.toUserProfileResponse(user), userMapper.toUserProfileResponse(view));
+        assertEquals(3L, view.tokenVersion());
+    }
+
+    @Test
+    void toAuthResponse_FromView_ShouldMatchTheFullEntity() throws Exception {
+        // Act
+        UserView view = project(user);
+
+        // Assert
+        assertEquals(userMapper.toAuthResponse(user, "jwt", "refresh"), userMapper.toAuthResponse(view, "jwt", "refresh"));
+    }
+
+    @Test
+    void userView_ShouldNotCarryCredentialFields() {
+        // Arrange
+        List<String> components = Arrays.stream(UserView.class.getRecordComponents())
+                .map(RecordComponent::getName)
+                .toList();
+
+        // Assert
+        assertTrue(components.stream().noneMatch(CREDENTIAL_FIELDS::contains), "UserView exposes " + components);
+        // Guards against the list going stale when a User field is renamed
+        CREDENTIAL_FIELDS.forEach(field -> assertNotNull(ReflectionUtils.findField(User.class, field), field));
+    }
+}
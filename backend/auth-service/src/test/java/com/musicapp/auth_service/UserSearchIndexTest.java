@@ -0,0 +1,112 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.service.UserSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private UserSearchIndex userSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        userSearchIndex = new UserSearchIndex(mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(userSearchIndex, "init");
+    }
+
+    private static Document user(String id, String username, String email) {
+        return new Document("_id", id).append("username", username).append("email", email);
+    }
+
+    private void build(Document... users) {
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users"))).thenReturn(Stream.of(users));
+        userSearchIndex.rebuild();
+    }
+
+    @Test
+    void search_ShouldRankExactThenPrefixThenSubstring() {
+        // Arrange
+        build(user("1", "bigjohnny", "big@example.com"),
+                user("2", "johnathan", "jt@example.com"),
+                user("3", "john", "j@example.com"),
+                user("4", "zed", "johnsmith@example.com"),
+                user("5", "alice", "alice@example.com"));
+
+        // Act
+        List<String> ids = userSearchIndex.search("John", 10);
+
+        // Assert
+        assertEquals(List.of("3", "2", "4", "1"), ids);
+        assertTrue(userSearchIndex.isReady());
+    }
+
+    @Test
+    void search_WithShortQuery_ShouldMatchPrefixesOnly() {
+        // Arrange
+        build(user("1", "jo", "x@example.com"), user("2", "bjo", "y@example.com"));
+
+        // Act & Assert
+        assertEquals(List.of("1"), userSearchIndex.search("jo", 10));
+    }
+
+    @Test
+    void search_ShouldNotMatchOnEmailDomainTrigramsButAllowFullEmailPrefix() {
+        // Arrange
+        build(user("1", "alice", "alice@gmail.com"), user("2", "bob", "bob@gmail.com"));
+
+        // Act & Assert
+        assertEquals(List.of(), userSearchIndex.search("gmail", 10));
+        assertEquals(List.of("1"), userSearchIndex.search("alice@gm", 10));
+    }
+
+    @Test
+    void put_ShouldReplaceOldNamesOnRename() {
+        // Arrange
+        build(user("1", "oldname", "o@example.com"));
+
+        // Act
+        userSearchIndex.put("1", "newname", "o@example.com");
+
+        // Assert
+        assertEquals(List.of(), userSearchIndex.search("oldn", 10));
+        assertEquals(List.of("1"), userSearchIndex.search("newn", 10));
+        assertEquals(List.of("1"), userSearchIndex.search("ewna", 10));
+    }
+
+    @Test
+    void rebuild_WhenMongoFails_ShouldStayNotReady() {
+        // Arrange
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("users")))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        userSearchIndex.rebuild();
+
+        // Assert
+        assertFalse(userSearchIndex.isReady());
+    }
+}
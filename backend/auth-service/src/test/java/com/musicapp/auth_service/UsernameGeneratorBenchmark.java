@@ -0,0 +1,98 @@
+package com.musicapp.auth_service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import com.musicapp.auth_service.service.UsernameGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to find a free username for a base that already has {@code collisions} numbered variants, comparing the
+ * old one-{@code exists}-per-suffix probe with {@link UsernameGenerator}'s single prefix query. Seeds a
+ * throwaway {@code auth_benchmark} database on the server at {@code MONGODB_URI} (default localhost) and drops
+ * it afterwards. Run with {@code mvn -Pbenchmark -Dbenchmark=UsernameGeneratorBenchmark test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UsernameGeneratorBenchmark {
+
+    private static final String BASE = "john";
+
+    @Param({"100", "1000", "5000"})
+    private int collisions;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private UsernameGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getenv().getOrDefault("MONGODB_URI", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(client, "auth_benchmark");
+        mongoTemplate.dropCollection(User.class);
+        mongoTemplate.indexOps(User.class).ensureIndex(new Index("username", Sort.Direction.ASC).unique());
+
+        List<Document> users = new ArrayList<>();
+        users.add(new Document("email", BASE + "@example.com").append("username", BASE));
+        for (int i = 1; i < collisions; i++) {
+            users.add(new Document("email", BASE + i + "@example.com").append("username", BASE + i));
+        }
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class)).insertMany(users);
+
+        // Never rebuilt, so every name counts as possibly taken and the query always runs
+        AccountNameIndex accountNameIndex = new AccountNameIndex(mongoTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(accountNameIndex, "init");
+        generator = new UsernameGenerator(mongoTemplate, accountNameIndex);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Benchmark
+    public String probeEachSuffix() {
+        String username = BASE;
+        int counter = 0;
+        while (mongoTemplate.exists(Query.query(Criteria.where("username").is(username)), User.class)) {
+            counter++;
+            username = BASE + counter;
+        }
+        return username;
+    }
+
+    @Benchmark
+    public String singlePrefixQuery() {
+        return generator.generate(BASE);
+    }
+}
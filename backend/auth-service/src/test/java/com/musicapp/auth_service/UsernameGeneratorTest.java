@@ -0,0 +1,86 @@
+package com.musicapp.auth_service;
+
+import com.musicapp.auth_service.model.User;
+import com.musicapp.auth_service.security.AccountNameIndex;
+import com.musicapp.auth_service.service.UsernameGenerator;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameGeneratorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private AccountNameIndex accountNameIndex;
+
+    @InjectMocks
+    private UsernameGenerator usernameGenerator;
+
+    private void stubTaken(String... usernames) {
+        when(accountNameIndex.mightHaveUsername(anyString())).thenReturn(true);
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users")))
+                .thenReturn(List.of(usernames).stream().map(name -> new Document("username", name)).toList());
+    }
+
+    @Test
+    void generate_WhenBloomFilterMisses_ShouldNotQuery() {
+        // Arrange
+        when(accountNameIndex.mightHaveUsername("johndoe")).thenReturn(false);
+
+        // Act
+        String username = usernameGenerator.generate("John.Doe");
+
+        // Assert
+        assertEquals("johndoe", username);
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void generate_ShouldPickLowestFreeSuffixFromOneQuery() {
+        // Arrange
+        stubTaken("john", "john1", "john2", "john4", "john01");
+
+        // Act
+        String username = usernameGenerator.generate("john");
+
+        // Assert
+        assertEquals("john3", username);
+        verify(mongoTemplate, times(1)).find(argThat((Query query) ->
+                query.getQueryObject().get("username").toString().equals("^john[0-9]*$")), eq(Document.class), eq("users"));
+    }
+
+    @Test
+    void generate_WhenBloomHitIsFalsePositive_ShouldReturnBase() {
+        // Arrange
+        stubTaken("john1");
+
+        // Act & Assert
+        assertEquals("john", usernameGenerator.generate("john"));
+    }
+
+    @Test
+    void generate_WithShortBase_ShouldPrefixIt() {
+        // Arrange
+        when(accountNameIndex.mightHaveUsername("userjo")).thenReturn(false);
+
+        // Act & Assert
+        assertEquals("userjo", usernameGenerator.generate("j.o"));
+    }
+}
@@ -36,6 +36,7 @@ export const AuthProvider = ({ children }: { children: ReactNode }) => {
           });
         } catch (error) {
           localStorage.removeItem(STORAGE_KEYS.TOKEN);
+          localStorage.removeItem(STORAGE_KEYS.REFRESH_TOKEN);
           setToken(null);
         }
       }
@@ -47,6 +48,9 @@ export const AuthProvider = ({ children }: { children: ReactNode }) => {
 
   const login = (data: AuthResponse) => {
     localStorage.setItem(STORAGE_KEYS.TOKEN, data.token);
+    if (data.refreshToken) {
+      localStorage.setItem(STORAGE_KEYS.REFRESH_TOKEN, data.refreshToken);
+    }
     setToken(data.token);
     setUser({
       userId: data.userId,
@@ -58,6 +62,7 @@ export const AuthProvider = ({ children }: { children: ReactNode }) => {
 
   const logout = () => {
     localStorage.removeItem(STORAGE_KEYS.TOKEN);
+    localStorage.removeItem(STORAGE_KEYS.REFRESH_TOKEN);
     setToken(null);
     setUser(null);
   };
@@ -1,7 +1,7 @@
 import { useEffect, useRef } from "react";
 import { useNavigate, useSearchParams } from "react-router-dom";
 import { useAuth } from "../context/AuthContext";
-import type { AuthResponse } from "../types/auth.types";
+import { authApi } from "../services/api";
 
 export default function OAuthCallbackPage() {
   const [searchParams] = useSearchParams();
@@ -13,11 +13,8 @@ export default function OAuthCallbackPage() {
     if (hasRun.current) return;
     hasRun.current = true;
 
-    const token = searchParams.get("token");
-    const userId = searchParams.get("userId");
-    const email = searchParams.get("email");
-    const username = searchParams.get("username");
-    const profileImageUrl = searchParams.get("profileImageUrl");
+    // Only a one-time code travels in the URL; the tokens come back from the POST below
+    const code = searchParams.get("code");
     const error = searchParams.get("error");
 
     if (error) {
@@ -26,20 +23,20 @@ export default function OAuthCallbackPage() {
       return;
     }
 
-    if (token && userId && email && username) {
-      const authData: AuthResponse = {
-        token,
-        userId,
-        email,
-        username,
-        profileImageUrl: profileImageUrl || undefined,
-      };
-
-      login(authData);
-      navigate("/", { replace: true });
-    } else {
+    if (!code) {
       navigate("/login?error=Authentication failed", { replace: true });
+      return;
     }
+
+    authApi
+      .exchangeOAuthCode(code)
+      .then((authData) => {
+        login(authData);
+        navigate("/", { replace: true });
+      })
+      .catch(() => {
+        navigate("/login?error=Authentication failed", { replace: true });
+      });
   }, [searchParams, login, navigate]);
 
   return (
@@ -27,6 +27,12 @@ export const authApi = {
     return response.data;
   },
 
+  // Redeems the one-time code from the OAuth2 callback redirect for tokens
+  exchangeOAuthCode: async (code: string): Promise<AuthResponse> => {
+    const response = await apiClient.post(API_ENDPOINTS.AUTH.OAUTH_TOKEN, { token: code });
+    return response.data;
+  },
+
   getCurrentUser: async (): Promise<AuthResponse> => {
     const response = await apiClient.get(API_ENDPOINTS.AUTH.ME);
     return response.data;
@@ -1,5 +1,7 @@
 import axios from "axios";
-import { API_BASE_URL, STORAGE_KEYS } from "../constants/api.constants";
+import type { InternalAxiosRequestConfig } from "axios";
+import { API_BASE_URL, API_ENDPOINTS, STORAGE_KEYS } from "../constants/api.constants";
+import type { AuthResponse } from "../types/auth.types";
 
 export const apiClient = axios.create({
   baseURL: API_BASE_URL,
@@ -16,12 +18,53 @@ apiClient.interceptors.request.use((config) => {
   return config;
 });
 
+// Shared so that concurrent 401s trigger a single refresh (refresh tokens are single-use)
+let refreshInFlight: Promise<string> | null = null;
+
+const refreshAccessToken = (refreshToken: string): Promise<string> => {
+  if (!refreshInFlight) {
+    refreshInFlight = axios
+      .post<AuthResponse>(`${API_BASE_URL}${API_ENDPOINTS.AUTH.REFRESH}`, {
+        token: refreshToken,
+      })
+      .then(({ data }) => {
+        localStorage.setItem(STORAGE_KEYS.TOKEN, data.token);
+        if (data.refreshToken) {
+          localStorage.setItem(STORAGE_KEYS.REFRESH_TOKEN, data.refreshToken);
+        }
+        return data.token;
+      })
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
 apiClient.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config as
+      | (InternalAxiosRequestConfig & { _retried?: boolean })
+      | undefined;
+    const refreshToken = localStorage.getItem(STORAGE_KEYS.REFRESH_TOKEN);
+
+    // Access tokens are short-lived: renew once and replay the request
+    if (error.response?.status === 401 && original && !original._retried && refreshToken) {
+      original._retried = true;
+      try {
+        const token = await refreshAccessToken(refreshToken);
+        original.headers.Authorization = `Bearer ${token}`;
+        return apiClient(original);
+      } catch {
+        // Fall through to the session-expired handling below
+      }
+    }
+
     // Handle 401 errors globally
     if (error.response?.status === 401) {
       localStorage.removeItem(STORAGE_KEYS.TOKEN);
+      localStorage.removeItem(STORAGE_KEYS.REFRESH_TOKEN);
       window.location.href =
         "/login?error=Session expired. Please login again.";
     }
@@ -11,6 +11,7 @@ export interface AuthResponse {
   email: string;
   username: string;
   profileImageUrl?: string;
+  refreshToken?: string;
 }
 
 export interface RegisterRequest {
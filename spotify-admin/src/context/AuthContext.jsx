@@ -4,6 +4,7 @@ import axios from "axios";
 const AUTH_API_BASE_URL =
   import.meta.env.VITE_AUTH_API_BASE_URL || "http://localhost:8080/api";
 const TOKEN_KEY = "admin_jwt";
+const REFRESH_TOKEN_KEY = "admin_refresh_token";
 
 const authClient = axios.create({
   baseURL: AUTH_API_BASE_URL,
@@ -12,6 +13,25 @@ const authClient = axios.create({
 
 const AuthContext = createContext(null);
 
+// Shared so that concurrent 401s trigger a single refresh (refresh tokens are single-use)
+let refreshInFlight = null;
+
+const refreshAccessToken = (refreshToken) => {
+  if (!refreshInFlight) {
+    refreshInFlight = axios
+      .post(`${AUTH_API_BASE_URL}/auth/refresh`, { token: refreshToken })
+      .then(({ data }) => {
+        localStorage.setItem(TOKEN_KEY, data.token);
+        localStorage.setItem(REFRESH_TOKEN_KEY, data.refreshToken);
+        return data.token;
+      })
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
 export const AuthProvider = ({ children }) => {
   const [user, setUser] = useState(null);
   const [token, setToken] = useState(null);
@@ -32,8 +52,38 @@ export const AuthProvider = ({ children }) => {
     setToken(null);
     applyToken(null);
     localStorage.removeItem(TOKEN_KEY);
+    localStorage.removeItem(REFRESH_TOKEN_KEY);
   }, [applyToken]);
 
+  // Access tokens are short-lived: on a 401, renew once with the refresh token and replay the request
+  useEffect(() => {
+    const onError = (client) => async (error) => {
+      const original = error.config;
+      const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+      if (error.response?.status !== 401 || !original || original._retried || !refreshToken) {
+        return Promise.reject(error);
+      }
+      original._retried = true;
+      try {
+        const jwt = await refreshAccessToken(refreshToken);
+        setToken(jwt);
+        applyToken(jwt);
+        original.headers.Authorization = `Bearer ${jwt}`;
+        return client(original);
+      } catch {
+        logout();
+        return Promise.reject(error);
+      }
+    };
+    const clients = [axios, authClient];
+    const interceptors = clients.map((client) =>
+      client.interceptors.response.use((response) => response, onError(client))
+    );
+    return () => {
+      clients.forEach((client, i) => client.interceptors.response.eject(interceptors[i]));
+    };
+  }, [applyToken, logout]);
+
   const validateAdminResponse = (data) => {
     const username = data?.username?.toLowerCase();
     if (username !== "admin") {
@@ -54,6 +104,7 @@ export const AuthProvider = ({ children }) => {
     setToken(jwt);
     setUser(response.data);
     localStorage.setItem(TOKEN_KEY, jwt);
+    localStorage.setItem(REFRESH_TOKEN_KEY, response.data.refreshToken);
     applyToken(jwt);
     return response.data;
   };
@@ -68,7 +119,8 @@ export const AuthProvider = ({ children }) => {
       try {
         const response = await authClient.get("/auth/me");
         validateAdminResponse(response.data);
-        setToken(stored);
+        // A refresh during the call above has replaced the stored token
+        setToken(localStorage.getItem(TOKEN_KEY));
         setUser(response.data);
       } catch (error) {
         logout();
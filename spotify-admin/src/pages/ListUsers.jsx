@@ -14,13 +14,25 @@ const formatDate = (value) => {
 
 function ListUsers() {
   const [users, setUsers] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [total, setTotal] = useState(0);
   const [isLoading, setIsLoading] = useState(true);
+  const [isLoadingMore, setIsLoadingMore] = useState(false);
+
+  // The endpoint is paged: each response carries one page of users and the cursor for the next one
+  const fetchPage = async (cursor) => {
+    const response = await axios.get(`${AUTH_API_BASE_URL}/admin/users`, {
+      params: cursor ? { cursor } : {},
+    });
+    setNextCursor(response.data?.nextCursor || null);
+    setTotal(response.data?.total ?? 0);
+    return response.data?.users || [];
+  };
 
   const fetchUsers = async () => {
     setIsLoading(true);
     try {
-      const response = await axios.get(`${AUTH_API_BASE_URL}/admin/users`);
-      setUsers(response.data || []);
+      setUsers(await fetchPage(null));
     } catch (error) {
       console.log("error", error);
       toast.error("User list error");
@@ -29,6 +41,19 @@ function ListUsers() {
     }
   };
 
+  const loadMore = async () => {
+    setIsLoadingMore(true);
+    try {
+      const page = await fetchPage(nextCursor);
+      setUsers((current) => [...current, ...page]);
+    } catch (error) {
+      console.log("error", error);
+      toast.error("User list error");
+    } finally {
+      setIsLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchUsers();
   }, []);
@@ -36,7 +61,7 @@ function ListUsers() {
   return (
     <div>
       <div className="flex items-center justify-between mr-5">
-        <p>All Users</p>
+        <p>All Users{isLoading ? "" : ` (${users.length} of ${total})`}</p>
         <button
           onClick={fetchUsers}
           className="px-4 py-2 bg-white border border-black text-sm font-medium drop-shadow-[-4px_4px_#00ff5b]"
@@ -76,6 +101,15 @@ function ListUsers() {
               </div>
             ))
           )}
+          {nextCursor && (
+            <button
+              onClick={loadMore}
+              disabled={isLoadingMore}
+              className="mt-4 px-4 py-2 bg-white border border-black text-sm font-medium drop-shadow-[-4px_4px_#00ff5b]"
+            >
+              {isLoadingMore ? "Loading..." : "Load more"}
+            </button>
+          )}
         </div>
       )}
     </div>